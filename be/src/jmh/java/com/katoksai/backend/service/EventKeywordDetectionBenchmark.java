@@ -0,0 +1,97 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.entity.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 이벤트 키워드 감지: 기존 정규식 순차 검사 vs Aho-Corasick 오토마톤 한 번 훑기
+ * 키워드는 application.yml 의 ai.event-detection 기본값과 같음
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventKeywordDetectionBenchmark {
+
+    // 기존 MessageService.detectEvent 의 패턴
+    private static final Pattern WEDDING_PATTERN = Pattern.compile("결혼|웨딩|청첩장|식장|신랑|신부|혼인", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BIRTHDAY_PATTERN = Pattern.compile("생일|생축|태어난|birthday", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FUNERAL_PATTERN = Pattern.compile("장례|부고|돌아가|상가|조문|빈소", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REUNION_PATTERN = Pattern.compile("동창|모임|오랜만|reunion", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REPLY_PATTERN = Pattern.compile("축하해|축하드|축하합|감사|고마워|명복|위로|잘됐|좋겠|부럽|갈게|참석|ㅊㅋ", Pattern.CASE_INSENSITIVE);
+
+    private static final Map<String, List<String>> KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        KEYWORDS.put(Message.EventType.WEDDING.name(), List.of("결혼", "웨딩", "청첩장", "식장", "신랑", "신부", "혼인"));
+        KEYWORDS.put(Message.EventType.BIRTHDAY.name(), List.of("생일", "생축", "태어난", "birthday"));
+        KEYWORDS.put(Message.EventType.FUNERAL.name(), List.of("장례", "부고", "돌아가", "상가", "조문", "빈소"));
+        KEYWORDS.put(Message.EventType.REUNION.name(), List.of("동창", "모임", "오랜만", "reunion"));
+        KEYWORDS.put(EventKeywordDetector.REPLY_CATEGORY, List.of(
+                "축하해", "축하드", "축하합", "감사", "고마워", "명복", "위로", "잘됐", "좋겠", "부럽", "갈게", "참석", "ㅊㅋ"));
+    }
+
+    private static final Map<String, String> MESSAGES = Map.of(
+            // 키워드 없는 일상 메시지 (대부분의 트래픽)
+            "general", "오늘 점심 뭐 먹었어? 나는 회사 앞에서 김치찌개 먹었는데 생각보다 괜찮더라 ㅋㅋ",
+            // 마지막 패턴까지 검사해야 하는 경우
+            "reunion", "다음 주 토요일에 고등학교 동창들이랑 저녁 먹기로 했는데 너도 올래?",
+            // 답장 키워드로 제외되는 경우
+            "reply", "와 결혼 진짜 축하해!! 꼭 갈게 🎉",
+            // 긴 메시지
+            "long", "요즘 일이 너무 바빠서 정신이 없네. 프로젝트 마감이 다음 주라서 매일 야근 중이야. ".repeat(10)
+                    + "그래서 말인데 나 내년 봄에 결혼해! 청첩장 나오면 줄게"
+    );
+
+    @Param({"general", "reunion", "reply", "long"})
+    private String message;
+
+    private String content;
+    private KeywordAutomaton<String> automaton;
+
+    @Setup
+    public void setUp() {
+        content = MESSAGES.get(message);
+        automaton = new KeywordAutomaton<>(KEYWORDS);
+    }
+
+    @Benchmark
+    public Message.EventType regexScan() {
+        if (REPLY_PATTERN.matcher(content).find()) {
+            return null;
+        }
+        if (WEDDING_PATTERN.matcher(content).find()) return Message.EventType.WEDDING;
+        if (BIRTHDAY_PATTERN.matcher(content).find()) return Message.EventType.BIRTHDAY;
+        if (FUNERAL_PATTERN.matcher(content).find()) return Message.EventType.FUNERAL;
+        if (REUNION_PATTERN.matcher(content).find()) return Message.EventType.REUNION;
+        return null;
+    }
+
+    @Benchmark
+    public void automatonScan(Blackhole blackhole) {
+        List<KeywordAutomaton.Match<String>> matches = automaton.findAll(content);
+        boolean replyCue = matches.stream()
+                .anyMatch(match -> EventKeywordDetector.REPLY_CATEGORY.equals(match.category()));
+        if (replyCue) {
+            blackhole.consume(matches);
+            return;
+        }
+        blackhole.consume(EventKeywordDetector.EVENT_PRIORITY.stream()
+                .filter(type -> matches.stream().anyMatch(match -> type.name().equals(match.category())))
+                .findFirst()
+                .orElse(null));
+    }
+}
@@ -0,0 +1,186 @@
+package com.katoksai.backend.config;
+
+import com.katoksai.backend.entity.Message;
+import com.katoksai.backend.service.AiPriority;
+import com.katoksai.backend.service.AiRateLimiter;
+import com.katoksai.backend.service.LlmOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "ai")
+@Getter
+@Setter
+public class AIProperties {
+
+    private Cache cache = new Cache();
+    private EventDetection eventDetection = new EventDetection();
+    private AutoReply autoReply = new AutoReply();
+    private Precompute precompute = new Precompute();
+    private LlmGuard llmGuard = new LlmGuard();
+    private Context context = new Context();
+    private Scheduler scheduler = new Scheduler();
+    private RateLimit rateLimit = new RateLimit();
+
+    @Getter
+    @Setter
+    public static class Cache {
+        // 관계 분석 결과 캐시
+        private int relationshipMaxSize = 10_000;
+        private Duration relationshipTtl = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class EventDetection {
+        // 이벤트 유형별 감지 키워드
+        private Map<Message.EventType, List<String>> keywords = new EnumMap<>(Message.EventType.class);
+        // 답장/응답 키워드 (포함되면 이벤트 감지 제외)
+        private List<String> replyKeywords = new ArrayList<>();
+        // 부정/취소 표현 (로컬 확신도를 낮춤)
+        private List<String> negationKeywords = new ArrayList<>();
+        // 로컬 점수가 이 구간(lower, upper) 안에 있을 때만 LLM으로 판단
+        private double escalationLower = 0.3;
+        private double escalationUpper = 0.7;
+        // 운영 중 키워드 추가용 외부 JSON 파일 (비어 있으면 사용 안 함)
+        private String keywordsFile;
+        private Duration reloadInterval = Duration.ofSeconds(60);
+        // LLM 분류 요청을 모으는 시간과 한 번에 보내는 최대 메시지 수
+        private Duration batchWindow = Duration.ofMillis(20);
+        private int batchMaxSize = 20;
+        // LLM 분류 시 메시지 하나당 최대 토큰 (초과분은 잘라냄)
+        private int messageMaxTokens = 300;
+    }
+
+    @Getter
+    @Setter
+    public static class AutoReply {
+        // 자동 답장 백그라운드 처리 워커 수 / 대기열 크기
+        private int workers = 2;
+        private int queueCapacity = 100;
+        // 실패 시 재시도 (backoff * 2^(시도-1) 후)
+        private int maxAttempts = 3;
+        private Duration retryBackoff = Duration.ofSeconds(30);
+        // RUNNING 상태로 이 시간 이상 남은 작업은 다시 대기열로
+        private Duration staleAfter = Duration.ofMinutes(5);
+        // 대기 작업 스윕 주기
+        private long sweepIntervalMs = 30_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Precompute {
+        // 이벤트 메시지 수신 시 받는 사람의 답장을 미리 생성
+        private boolean enabled = true;
+        private int workers = 2;
+        // 대기열이 가득 차면 우선순위가 가장 낮은 작업을 버림
+        private int queueCapacity = 50;
+        // 미리 생성한 답장 보관 (대화가 바뀌지 않았고 ttl 이내일 때만 사용)
+        private int maxResults = 1_000;
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class LlmGuard {
+        // 용도별 동시 LLM 호출 수 (기본값 + 용도별 재정의)
+        private int maxConcurrent = 8;
+        private Map<LlmOperation, Integer> maxConcurrentPerOperation = new EnumMap<>(LlmOperation.class);
+        // 동시 호출 한도 초과 시 대기열 크기와 최대 대기 시간
+        private int maxQueue = 50;
+        private Duration queueTimeout = Duration.ofSeconds(5);
+        // 최근 windowSize 건 중 실패율이 기준 이상이면 openDuration 동안 호출 차단
+        private int windowSize = 20;
+        private int minCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        // half-open 상태에서 허용하는 시험 호출 수 (모두 성공하면 닫힘)
+        private int halfOpenCalls = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Context {
+        // 프롬프트별 대화 컨텍스트 토큰 예산 (추정치 기준, 최근 메시지부터 채움)
+        private int relationshipTokens = 2_000;
+        private int weddingTokens = 2_000;
+        private int replyRecentTokens = 800;
+        private int replyStyleTokens = 600;
+    }
+
+    @Getter
+    @Setter
+    public static class Scheduler {
+        // 전체 동시 LLM 호출 수 (하위 등급 한도 합보다 크게 두어 INTERACTIVE 용 여유 확보)
+        private int maxConcurrent = 12;
+        // 하위 등급이 이 시간만큼 기다릴 때마다 한 단계씩 우선순위 상승 (INTERACTIVE 보다 앞서지는 않음)
+        private Duration agingInterval = Duration.ofSeconds(5);
+        // INTERACTIVE 는 spring.mvc.async.request-timeout(90s) 전에 기본 응답이라도 돌려주도록 deadline 을 짧게
+        private PriorityClass interactive = new PriorityClass(12, Duration.ofSeconds(10), Duration.ofSeconds(80));
+        private PriorityClass background = new PriorityClass(4, Duration.ofSeconds(60), null);
+        private PriorityClass batch = new PriorityClass(2, Duration.ofSeconds(30), null);
+
+        public PriorityClass forPriority(AiPriority priority) {
+            return switch (priority) {
+                case INTERACTIVE -> interactive;
+                case BACKGROUND -> background;
+                case BATCH -> batch;
+            };
+        }
+
+        @Getter
+        @Setter
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class PriorityClass {
+            // 등급별 동시 LLM 호출 수
+            private int maxConcurrent;
+            // 호출 슬롯 최대 대기 시간 (초과 시 기본 응답)
+            private Duration maxWait;
+            // 작업 전체(여러 LLM 호출과 대기 포함) 제한 시간 - 없으면 호출마다 openai.retry.deadline 만 적용
+            private Duration deadline;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        private boolean enabled = true;
+        // 버킷을 유지하는 최대 사용자 수 (API 별)
+        private long maxTrackedUsers = 100_000;
+        private Bucket analyzeRelationship = new Bucket(10, Duration.ofSeconds(30));
+        private Bucket generateReply = new Bucket(10, Duration.ofSeconds(20));
+        private Bucket detectEvent = new Bucket(30, Duration.ofSeconds(2));
+        private Bucket autoReply = new Bucket(10, Duration.ofSeconds(20));
+
+        public Bucket forOperation(AiRateLimiter.Operation operation) {
+            return switch (operation) {
+                case ANALYZE_RELATIONSHIP -> analyzeRelationship;
+                case GENERATE_REPLY -> generateReply;
+                case DETECT_EVENT -> detectEvent;
+                case AUTO_REPLY -> autoReply;
+            };
+        }
+
+        @Getter
+        @Setter
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Bucket {
+            // 연속으로 허용하는 최대 요청 수
+            private int capacity;
+            // 토큰 1개가 충전되는 간격
+            private Duration refillInterval;
+        }
+    }
+}
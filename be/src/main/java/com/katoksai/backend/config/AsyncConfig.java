@@ -0,0 +1,54 @@
+package com.katoksai.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * AI 요청 전용 실행기 - 가상 스레드에서 실행하여
+     * 느린 LLM 호출이 Tomcat 워커 스레드를 점유하지 않도록 함
+     */
+    @Bean
+    public AsyncTaskExecutor aiExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ai-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * 결혼 자동 답장 작업 전용 워커 풀 (크기 제한)
+     * 대기열이 가득 차면 작업은 PENDING 으로 남고 주기적 스윕에서 다시 처리됨
+     */
+    @Bean
+    public ThreadPoolTaskExecutor autoReplyExecutor(AIProperties aiProperties) {
+        AIProperties.AutoReply settings = aiProperties.getAutoReply();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(settings.getWorkers());
+        executor.setMaxPoolSize(settings.getWorkers());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setThreadNamePrefix("auto-reply-");
+        return executor;
+    }
+
+    /**
+     * 답장 미리 생성 전용 워커 풀
+     * 실제 작업 순서는 ReplyPrecomputeService 의 우선순위 대기열이 결정함
+     */
+    @Bean
+    public ThreadPoolTaskExecutor replyPrecomputeExecutor(AIProperties aiProperties) {
+        AIProperties.Precompute settings = aiProperties.getPrecompute();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(settings.getWorkers());
+        executor.setMaxPoolSize(settings.getWorkers());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setThreadNamePrefix("reply-precompute-");
+        return executor;
+    }
+}
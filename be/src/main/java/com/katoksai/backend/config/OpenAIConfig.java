@@ -1,5 +1,6 @@
 package com.katoksai.backend.config;
 
+import com.katoksai.backend.service.LlmOperation;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -9,6 +10,12 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 @Configuration
 @ConfigurationProperties(prefix = "openai")
 @Getter
@@ -20,6 +27,37 @@ public class OpenAIConfig {
     private String baseUrl;
     private int timeout;
     private int maxTokens;
+    private double temperature = 0.7;
+    // 응답 DTO 에서 만든 JSON schema 로 응답 형식 강제 (response_format: json_schema)
+    private boolean structuredOutput = true;
+    // 호출 용도(LlmOperation)별 모델/토큰/temperature/reasoning effort 재정의 - 지정하지 않은 값은 기본 설정 사용
+    // 단, 다른 모델을 지정한 용도는 temperature 를 상속하지 않음 (GPT-5 계열 reasoning 모델은 기본값 외 temperature 를 거부)
+    private Map<LlmOperation, ModelProfile> profiles = new EnumMap<>(LlmOperation.class);
+    // 일시적 장애(429/5xx/타임아웃) 재시도
+    private Retry retry = new Retry();
+    // 느린 응답에 같은 요청을 한 번 더 보내는 hedged request (기본 비활성)
+    private Hedge hedge = new Hedge();
+
+    /**
+     * 호출 용도에 적용할 모델 설정
+     */
+    public ResolvedProfile resolveProfile(LlmOperation operation) {
+        ModelProfile profile = profiles.get(operation);
+        if (profile == null) {
+            return new ResolvedProfile("default", model, maxTokens, temperature, null);
+        }
+        Double profileTemperature = profile.getTemperature();
+        if (profileTemperature == null && profile.getModel() == null) {
+            profileTemperature = temperature;
+        }
+        return new ResolvedProfile(
+                operation.getTag(),
+                profile.getModel() != null ? profile.getModel() : model,
+                profile.getMaxTokens() != null ? profile.getMaxTokens() : maxTokens,
+                profileTemperature,
+                profile.getReasoningEffort()
+        );
+    }
 
     @Bean
     public WebClient openAIWebClient() {
@@ -30,4 +68,50 @@ public class OpenAIConfig {
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
                 .build();
     }
+
+    @Getter
+    @Setter
+    public static class ModelProfile {
+        private String model;
+        // reasoning 모델은 reasoning 토큰도 max-tokens 에 포함되므로 출력 분량보다 넉넉하게
+        private Integer maxTokens;
+        private Double temperature;
+        // reasoning 모델용 reasoning_effort (minimal|low|medium|high, 생략 시 모델 기본값)
+        private String reasoningEffort;
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        // 첫 호출 포함 최대 시도 횟수
+        private int maxAttempts = 3;
+        // 지수 backoff 시작값과 상한 (Retry-After 가 없을 때)
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(8);
+        // 재시도와 대기를 포함한 호출 전체 제한 시간
+        private Duration deadline = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    public static class Hedge {
+        private boolean enabled = false;
+        // hedge 를 적용할 호출 용도
+        private Set<LlmOperation> operations = EnumSet.of(LlmOperation.REPLY_GENERATION);
+        // 최근 응답 시간의 이 백분위수까지 응답이 없으면 hedge
+        private double percentile = 0.95;
+        private int windowSize = 200;
+        // 표본이 이보다 적으면 hedge 하지 않음
+        private int minSamples = 20;
+        private Duration minDelay = Duration.ofSeconds(1);
+        // 요청 대비 hedge 비율 상한과 한 번에 몰아 쓸 수 있는 최대 hedge 수
+        private double maxRate = 0.05;
+        private int maxBurst = 10;
+    }
+
+    // name: 메트릭 profile 태그 (재정의가 없으면 "default")
+    /**
+     * temperature 가 null 이면 요청에서 생략 (모델 기본값), reasoningEffort 도 null 이면 생략
+     */
+    public record ResolvedProfile(String name, String model, int maxTokens, Double temperature, String reasoningEffort) {}
 }
@@ -3,91 +3,202 @@ package com.katoksai.backend.controller;
 import com.katoksai.backend.dto.request.GenerateReplyRequest;
 import com.katoksai.backend.dto.response.AIReplyResponse;
 import com.katoksai.backend.dto.response.ApiResponse;
+import com.katoksai.backend.exception.RateLimitExceededException;
 import com.katoksai.backend.service.AIService;
+import com.katoksai.backend.service.AiJobScheduler;
+import com.katoksai.backend.service.AiPriority;
+import com.katoksai.backend.service.AiRateLimiter;
+import com.katoksai.backend.service.ReplyPrecomputeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/ai")
 @RequiredArgsConstructor
+@Slf4j
 @Tag(name = "AI", description = "AI 분석 및 답장 생성 API")
 public class AIController {
 
     private final AIService aiService;
+    private final ReplyPrecomputeService replyPrecomputeService;
+    private final AsyncTaskExecutor aiExecutor;
+    private final AiJobScheduler aiJobScheduler;
+    private final AiRateLimiter aiRateLimiter;
+
+    private static final long REPLY_STREAM_TIMEOUT_MS = 90_000L;
 
     @PostMapping("/analyze-relationship")
     @Operation(summary = "관계 분석", description = "채팅 기록을 바탕으로 두 사람의 관계를 분석합니다.")
-    public ResponseEntity<ApiResponse<AIReplyResponse.RelationshipAnalysisDto>> analyzeRelationship(
+    public CompletableFuture<ResponseEntity<ApiResponse<AIReplyResponse.RelationshipAnalysisDto>>> analyzeRelationship(
             @RequestParam Long userId,
             @RequestParam Long chatRoomId,
             @RequestParam Long friendId) {
 
-        AIService.RelationshipAnalysis analysis = aiService.analyzeRelationship(chatRoomId, userId, friendId);
-        AIReplyResponse.RelationshipAnalysisDto response = AIReplyResponse.RelationshipAnalysisDto.from(analysis);
+        aiRateLimiter.check(AiRateLimiter.Operation.ANALYZE_RELATIONSHIP, userId);
+        return aiJobScheduler.submit(AiPriority.INTERACTIVE, () -> {
+            AIService.RelationshipAnalysis analysis = aiService.analyzeRelationship(chatRoomId, userId, friendId);
+            AIReplyResponse.RelationshipAnalysisDto response = AIReplyResponse.RelationshipAnalysisDto.from(analysis);
 
-        return ResponseEntity.ok(ApiResponse.success(response));
+            return ResponseEntity.ok(ApiResponse.success(response));
+        });
     }
 
     @PostMapping("/generate-reply")
     @Operation(summary = "답장 생성", description = "이벤트와 관계 분석을 바탕으로 적절한 답장 옵션을 생성합니다.")
-    public ResponseEntity<ApiResponse<AIReplyResponse>> generateReply(
+    public CompletableFuture<ResponseEntity<ApiResponse<AIReplyResponse>>> generateReply(
             @RequestParam Long userId,
             @RequestBody GenerateReplyRequest request) {
 
-        // 관계 분석
-        AIService.RelationshipAnalysis relationshipAnalysis = aiService.analyzeRelationship(
-                request.getChatRoomId(), userId, request.getFriendId());
-
-        // 답장 생성
-        AIService.ReplyGenerationResult result = aiService.generateReply(
-                request.getChatRoomId(),
-                userId,
-                request.getFriendId(),
-                request.getEventType()
-        );
-
-        AIReplyResponse response = AIReplyResponse.builder()
-                .replies(result.replies().stream()
-                        .map(AIReplyResponse.ReplyOptionDto::from)
-                        .collect(Collectors.toList()))
-                .recommendedIndex(result.recommendedIndex())
-                .aiInsight(result.aiInsight())
-                .relationshipAnalysis(AIReplyResponse.RelationshipAnalysisDto.from(relationshipAnalysis))
-                .build();
-
-        return ResponseEntity.ok(ApiResponse.success(response));
+        aiRateLimiter.check(AiRateLimiter.Operation.GENERATE_REPLY, userId);
+        return aiJobScheduler.submit(AiPriority.INTERACTIVE, () -> {
+            // 관계 분석
+            AIService.RelationshipAnalysis relationshipAnalysis = aiService.analyzeRelationship(
+                    request.getChatRoomId(), userId, request.getFriendId());
+
+            // 답장 생성 (이벤트 수신 시 미리 생성해 둔 답장이 유효하면 그대로 사용)
+            AIService.ReplyGenerationResult result = replyPrecomputeService.getFresh(
+                    request.getChatRoomId(), userId, request.getFriendId(), request.getEventType())
+                    .orElseGet(() -> aiService.generateReply(
+                            request.getChatRoomId(),
+                            userId,
+                            request.getFriendId(),
+                            request.getEventType()
+                    ));
+
+            AIReplyResponse response = AIReplyResponse.builder()
+                    .replies(result.replies().stream()
+                            .map(AIReplyResponse.ReplyOptionDto::from)
+                            .collect(Collectors.toList()))
+                    .recommendedIndex(result.recommendedIndex())
+                    .aiInsight(result.aiInsight())
+                    .relationshipAnalysis(AIReplyResponse.RelationshipAnalysisDto.from(relationshipAnalysis))
+                    .build();
+
+            return ResponseEntity.ok(ApiResponse.success(response));
+        });
+    }
+
+    @PostMapping(value = "/generate-reply/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "답장 스트리밍 생성", description = "답장 옵션이 완성될 때마다 'reply' 이벤트로 전송하고, 마지막에 전체 결과를 'result' 이벤트로 전송합니다.")
+    public ResponseEntity<SseEmitter> generateReplyStream(
+            @RequestParam Long userId,
+            @RequestBody GenerateReplyRequest request) {
+
+        try {
+            aiRateLimiter.check(AiRateLimiter.Operation.GENERATE_REPLY, userId);
+        } catch (RateLimitExceededException e) {
+            // 이벤트 스트림 응답이라 JSON 오류 본문 대신 상태 코드와 Retry-After 만 전달
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+
+        SseEmitter emitter = new SseEmitter(REPLY_STREAM_TIMEOUT_MS);
+
+        aiExecutor.execute(() -> aiJobScheduler.run(AiPriority.INTERACTIVE, () -> {
+            try {
+                // 관계 분석
+                AIService.RelationshipAnalysis relationshipAnalysis = aiService.analyzeRelationship(
+                        request.getChatRoomId(), userId, request.getFriendId());
+
+                // 답장 생성 (옵션이 완성될 때마다 전송, 미리 생성된 답장이 있으면 한 번에 전송)
+                AIService.ReplyGenerationResult result = replyPrecomputeService.getFresh(
+                        request.getChatRoomId(), userId, request.getFriendId(), request.getEventType())
+                        .map(precomputed -> {
+                            precomputed.replies().forEach(option ->
+                                    sendEvent(emitter, "reply", AIReplyResponse.ReplyOptionDto.from(option)));
+                            return precomputed;
+                        })
+                        .orElseGet(() -> aiService.generateReplyStream(
+                                request.getChatRoomId(),
+                                userId,
+                                request.getFriendId(),
+                                request.getEventType(),
+                                option -> sendEvent(emitter, "reply", AIReplyResponse.ReplyOptionDto.from(option))
+                        ));
+
+                AIReplyResponse response = AIReplyResponse.builder()
+                        .replies(result.replies().stream()
+                                .map(AIReplyResponse.ReplyOptionDto::from)
+                                .collect(Collectors.toList()))
+                        .recommendedIndex(result.recommendedIndex())
+                        .aiInsight(result.aiInsight())
+                        .relationshipAnalysis(AIReplyResponse.RelationshipAnalysisDto.from(relationshipAnalysis))
+                        .build();
+
+                sendEvent(emitter, "result", ApiResponse.success(response));
+                emitter.complete();
+            } catch (Exception e) {
+                log.error("Reply stream failed: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }));
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // 클라이언트 연결 종료 - 남은 이벤트는 버림
+            log.debug("Failed to send SSE event {}: {}", name, e.getMessage());
+        }
     }
 
     @PostMapping("/detect-event")
     @Operation(summary = "이벤트 감지", description = "메시지에서 특별한 이벤트(결혼/생일/부고 등)를 감지합니다.")
-    public ResponseEntity<ApiResponse<AIService.EventDetectionResult>> detectEvent(
-            @RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<AIService.EventDetectionResult>>> detectEvent(
+            @RequestParam(required = false) Long userId,
+            @RequestBody Map<String, String> request,
+            HttpServletRequest httpRequest) {
+
+        // userId 없이 호출하는 클라이언트는 접속 주소 기준으로 제한
+        if (userId != null) {
+            aiRateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, userId);
+        } else {
+            aiRateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, "ip:" + httpRequest.getRemoteAddr());
+        }
 
         String message = request.get("message");
-        AIService.EventDetectionResult result = aiService.detectEvent(message);
+        return aiJobScheduler.submit(AiPriority.INTERACTIVE, () -> {
+            AIService.EventDetectionResult result = aiService.detectEvent(message);
 
-        return ResponseEntity.ok(ApiResponse.success(result));
+            return ResponseEntity.ok(ApiResponse.success(result));
+        });
     }
 
     @PostMapping("/auto-reply")
     @Operation(summary = "자동 답장 생성", description = "설정에 따라 자동 답장을 생성합니다. 친밀도가 임계값 이하일 때만 동작합니다.")
-    public ResponseEntity<ApiResponse<AIService.AutoReplyResult>> generateAutoReply(
+    public CompletableFuture<ResponseEntity<ApiResponse<AIService.AutoReplyResult>>> generateAutoReply(
             @RequestParam Long userId,
             @RequestBody GenerateReplyRequest request) {
 
-        AIService.AutoReplyResult result = aiService.generateAutoReply(
-                request.getChatRoomId(),
-                userId,
-                request.getFriendId(),
-                request.getEventType()
-        );
-
-        return ResponseEntity.ok(ApiResponse.success(result));
+        aiRateLimiter.check(AiRateLimiter.Operation.AUTO_REPLY, userId);
+        return aiJobScheduler.submit(AiPriority.INTERACTIVE, () -> {
+            AIService.AutoReplyResult result = aiService.generateAutoReply(
+                    request.getChatRoomId(),
+                    userId,
+                    request.getFriendId(),
+                    request.getEventType()
+            );
+
+            return ResponseEntity.ok(ApiResponse.success(result));
+        });
     }
 }
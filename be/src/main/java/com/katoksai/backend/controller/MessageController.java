@@ -2,11 +2,12 @@ package com.katoksai.backend.controller;
 
 import com.katoksai.backend.dto.request.SendMessageRequest;
 import com.katoksai.backend.dto.response.ApiResponse;
+import com.katoksai.backend.dto.response.MessageCursorResponse;
 import com.katoksai.backend.dto.response.MessageResponse;
 import com.katoksai.backend.service.AIService;
-import com.katoksai.backend.service.ChatRoomService;
+import com.katoksai.backend.service.AiJobScheduler;
+import com.katoksai.backend.service.AiPriority;
 import com.katoksai.backend.service.MessageService;
-import com.katoksai.backend.service.WebSocketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/chat-rooms/{chatRoomId}/messages")
@@ -24,9 +26,8 @@ import java.util.List;
 public class MessageController {
 
     private final MessageService messageService;
-    private final ChatRoomService chatRoomService;
-    private final WebSocketService webSocketService;
     private final AIService aiService;
+    private final AiJobScheduler aiJobScheduler;
 
     @GetMapping
     @Operation(summary = "메시지 목록 조회", description = "채팅방의 메시지 목록을 조회합니다.")
@@ -39,6 +40,18 @@ public class MessageController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "메시지 커서 조회", description = "메시지 id 커서(before/after) 기준으로 메시지를 조회합니다. 전체 개수를 세지 않아 긴 채팅방에서도 일정한 속도로 동작합니다.")
+    public ResponseEntity<ApiResponse<MessageCursorResponse>> getMessagesByCursor(
+            @RequestParam Long userId,
+            @PathVariable Long chatRoomId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        MessageCursorResponse response = messageService.getMessagesByCursor(chatRoomId, userId, before, after, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/all")
     @Operation(summary = "전체 메시지 조회", description = "채팅방의 모든 메시지를 조회합니다.")
     public ResponseEntity<ApiResponse<List<MessageResponse>>> getAllMessages(
@@ -64,12 +77,9 @@ public class MessageController {
             @RequestParam Long userId,
             @PathVariable Long chatRoomId,
             @Valid @RequestBody SendMessageRequest request) {
+        // WebSocket 실시간 전송은 커밋 후 outbox 디스패처가 처리
         MessageResponse response = messageService.sendMessage(chatRoomId, userId, request);
 
-        // Send via WebSocket for real-time delivery
-        List<Long> memberIds = chatRoomService.getChatRoomMemberIds(chatRoomId);
-        webSocketService.sendMessageToRoom(chatRoomId, response, memberIds);
-
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -85,10 +95,12 @@ public class MessageController {
 
     @PostMapping("/analyze-event")
     @Operation(summary = "메시지 이벤트 분석", description = "메시지에서 이벤트를 AI로 분석합니다.")
-    public ResponseEntity<ApiResponse<AIService.EventDetectionResult>> analyzeMessageEvent(
+    public CompletableFuture<ResponseEntity<ApiResponse<AIService.EventDetectionResult>>> analyzeMessageEvent(
             @PathVariable Long chatRoomId,
             @RequestParam String message) {
-        AIService.EventDetectionResult result = aiService.detectEvent(message);
-        return ResponseEntity.ok(ApiResponse.success(result));
+        return aiJobScheduler.submit(AiPriority.INTERACTIVE, () -> {
+            AIService.EventDetectionResult result = aiService.detectEvent(message);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        });
     }
 }
@@ -1,7 +1,6 @@
 package com.katoksai.backend.controller;
 
 import com.katoksai.backend.dto.request.SendMessageRequest;
-import com.katoksai.backend.dto.response.MessageResponse;
 import com.katoksai.backend.service.ChatRoomService;
 import com.katoksai.backend.service.MessageService;
 import com.katoksai.backend.service.WebSocketService;
@@ -15,7 +14,6 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Controller;
 
-import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -46,12 +44,8 @@ public class WebSocketController {
 
         log.debug("WebSocket message from user {} to room {}: {}", userId, chatRoomId, request.getContent());
 
-        // Save message and get response
-        MessageResponse response = messageService.sendMessage(chatRoomId, userId, request);
-
-        // Broadcast to all room subscribers
-        List<Long> memberIds = chatRoomService.getChatRoomMemberIds(chatRoomId);
-        webSocketService.sendMessageToRoom(chatRoomId, response, memberIds);
+        // Save message - broadcast to room subscribers is dispatched from the outbox after commit
+        messageService.sendMessage(chatRoomId, userId, request);
     }
 
     /**
@@ -28,13 +28,24 @@ public class ChatRoomResponse {
     private List<ChatRoomMemberResponse> members;
 
     public static ChatRoomResponse from(ChatRoom chatRoom, Long currentUserId, Message lastMessage, Integer unreadCount, Integer intimacyScore) {
+        List<ChatRoomMember> activeMembers = chatRoom.getMembers().stream()
+                .filter(m -> m.getLeftAt() == null)
+                .toList();
+        return from(chatRoom, currentUserId, lastMessage, unreadCount, intimacyScore, activeMembers);
+    }
+
+    /**
+     * 미리 조회한 활성 멤버 목록으로 응답 생성 (chatRoom.getMembers() lazy 로딩 없음)
+     */
+    public static ChatRoomResponse from(ChatRoom chatRoom, Long currentUserId, Message lastMessage, Integer unreadCount,
+                                        Integer intimacyScore, List<ChatRoomMember> activeMembers) {
         String displayName = chatRoom.getName();
         String displayAvatar = chatRoom.getAvatar();
 
         // For direct chat, show the other user's name and avatar
         if (chatRoom.getType() == ChatRoom.ChatRoomType.DIRECT) {
-            for (ChatRoomMember member : chatRoom.getMembers()) {
-                if (!member.getUser().getId().equals(currentUserId) && member.getLeftAt() == null) {
+            for (ChatRoomMember member : activeMembers) {
+                if (!member.getUser().getId().equals(currentUserId)) {
                     displayName = member.getUser().getName();
                     displayAvatar = member.getUser().getAvatar();
                     break;
@@ -42,8 +53,7 @@ public class ChatRoomResponse {
             }
         }
 
-        List<ChatRoomMemberResponse> memberResponses = chatRoom.getMembers().stream()
-                .filter(m -> m.getLeftAt() == null)
+        List<ChatRoomMemberResponse> memberResponses = activeMembers.stream()
                 .map(m -> ChatRoomMemberResponse.builder()
                         .id(m.getUser().getId())
                         .name(m.getUser().getName())
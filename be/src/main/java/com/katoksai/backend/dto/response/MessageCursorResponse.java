@@ -0,0 +1,20 @@
+package com.katoksai.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageCursorResponse {
+
+    private List<MessageResponse> messages;
+    private Long nextBefore;   // 더 이전 메시지를 불러올 때 사용할 커서
+    private Long nextAfter;    // 더 최신 메시지를 불러올 때 사용할 커서
+    private boolean hasMore;
+}
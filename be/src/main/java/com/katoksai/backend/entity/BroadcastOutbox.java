@@ -0,0 +1,51 @@
+package com.katoksai.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * WebSocket 브로드캐스트 대기열 (transactional outbox)
+ * 메시지와 같은 트랜잭션에서 기록되고, 커밋 후 디스패처가 전송한 뒤 삭제
+ */
+@Entity
+@Table(name = "broadcast_outbox", indexes = {
+    @Index(name = "idx_broadcast_outbox_status_id", columnList = "status, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BroadcastOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long chatRoomId;
+
+    // 직렬화된 MessageResponse
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum OutboxStatus {
+        PENDING, FAILED
+    }
+}
@@ -0,0 +1,53 @@
+package com.katoksai.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅방별/사용자 관점별 누적 대화 요약
+ * lastMessageId 까지의 메시지가 summary 에 반영되어 있음
+ */
+@Entity
+@Table(name = "conversation_summaries", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"chat_room_id", "user_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(nullable = false)
+    private Long lastMessageId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer summarizedCount = 0;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // 동시 요약 갱신 시 나중 저장이 먼저 저장된 요약을 덮어쓰지 않도록
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+}
@@ -7,7 +7,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_chat_room_id_id", columnList = "chat_room_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,62 @@
+package com.katoksai.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅방별 사용자 말투 프로필
+ * 메시지 전송 시 카운터만 증가시키므로 답장 생성 시 전체 대화 기록을 다시 훑지 않아도 됨
+ */
+@Entity
+@Table(name = "user_style_profiles", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"chat_room_id", "user_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStyleProfile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long messageCount = 0L;
+
+    // 이모지가 포함된 메시지 수
+    @Column(nullable = false)
+    @Builder.Default
+    private Long emojiMessageCount = 0L;
+
+    // ㅋㅋ/ㅎㅎ 가 포함된 메시지 수
+    @Column(nullable = false)
+    @Builder.Default
+    private Long laughterMessageCount = 0L;
+
+    // 느낌표 총 개수
+    @Column(nullable = false)
+    @Builder.Default
+    private Long exclamationCount = 0L;
+
+    // 존댓말 표현이 포함된 메시지 수
+    @Column(nullable = false)
+    @Builder.Default
+    private Long politeMessageCount = 0L;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+package com.katoksai.backend.repository;
+
+import com.katoksai.backend.entity.AutoReplyJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AutoReplyJobRepository extends JpaRepository<AutoReplyJob, Long> {
+
+    @Query("SELECT j.id FROM AutoReplyJob j WHERE j.status = 'PENDING' AND j.nextAttemptAt <= :now ORDER BY j.nextAttemptAt ASC")
+    List<Long> findDueJobIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 처리 시작 선점 - 다른 워커가 이미 가져간 작업이면 0 반환
+    @Modifying
+    @Query("UPDATE AutoReplyJob j SET j.status = 'RUNNING', j.attempts = j.attempts + 1, j.updatedAt = :now " +
+           "WHERE j.id = :jobId AND j.status = 'PENDING'")
+    int claim(@Param("jobId") Long jobId, @Param("now") LocalDateTime now);
+
+    // 처리 중 서버가 종료된 작업을 다시 대기 상태로 (선점 시 attempts 가 이미 증가했으므로 중단된 시도도 횟수에 포함)
+    @Modifying
+    @Query("UPDATE AutoReplyJob j SET j.status = 'PENDING', j.nextAttemptAt = :now " +
+           "WHERE j.status = 'RUNNING' AND j.updatedAt < :staleBefore AND j.attempts < :maxAttempts")
+    int releaseStaleJobs(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now,
+                         @Param("maxAttempts") int maxAttempts);
+
+    // 재시도 횟수를 모두 쓴 채로 중단된 작업은 실패 처리
+    @Modifying
+    @Query("UPDATE AutoReplyJob j SET j.status = 'FAILED', j.lastError = :error, j.updatedAt = :now " +
+           "WHERE j.status = 'RUNNING' AND j.updatedAt < :staleBefore AND j.attempts >= :maxAttempts")
+    int failStaleJobs(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now,
+                      @Param("maxAttempts") int maxAttempts, @Param("error") String error);
+
+    // 완료 처리 선점 - 이번 시도(attempts)로 선점한 작업만 완료, 시간 초과로 다른 워커가 다시 가져갔으면 0 반환
+    @Modifying
+    @Query("UPDATE AutoReplyJob j SET j.status = 'DONE', j.lastError = NULL, j.updatedAt = :now " +
+           "WHERE j.id = :jobId AND j.status = 'RUNNING' AND j.attempts = :attempt")
+    int complete(@Param("jobId") Long jobId, @Param("attempt") int attempt, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,19 @@
+package com.katoksai.backend.repository;
+
+import com.katoksai.backend.entity.BroadcastOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BroadcastOutboxRepository extends JpaRepository<BroadcastOutbox, Long> {
+
+    @Query("SELECT o FROM BroadcastOutbox o WHERE o.status = 'PENDING' ORDER BY o.id ASC")
+    List<BroadcastOutbox> findPending(Pageable pageable);
+
+    @Query("SELECT COUNT(o) FROM BroadcastOutbox o WHERE o.status = 'PENDING'")
+    long countPending();
+}
@@ -0,0 +1,13 @@
+package com.katoksai.backend.repository;
+
+import com.katoksai.backend.entity.ChatRoom;
+import com.katoksai.backend.entity.Message;
+
+/**
+ * 채팅방 목록(inbox) 한 줄: 채팅방 + 내 읽지 않은 메시지 수 + 마지막 메시지
+ */
+public record ChatRoomInboxRow(
+        ChatRoom chatRoom,
+        Integer unreadCount,
+        Message lastMessage
+) {}
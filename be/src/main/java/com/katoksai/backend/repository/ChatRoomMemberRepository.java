@@ -7,12 +7,35 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember, Long> {
 
+    // 채팅방 목록 조회용: 내 멤버십 + 채팅방 + 마지막 메시지를 한 번에 조회
+    String INBOX_SELECT = "SELECT new com.katoksai.backend.repository.ChatRoomInboxRow(cr, m.unreadCount, lm) " +
+           "FROM ChatRoomMember m JOIN m.chatRoom cr " +
+           "LEFT JOIN Message lm ON lm.id = (" +
+           "SELECT MAX(m2.id) FROM Message m2 WHERE m2.chatRoom = cr AND m2.isDeleted = false) " +
+           "WHERE m.user.id = :userId AND m.leftAt IS NULL ";
+
+    String INBOX_ORDER = "ORDER BY COALESCE(lm.createdAt, cr.createdAt) DESC, cr.id DESC";
+
+    @Query(INBOX_SELECT + INBOX_ORDER)
+    List<ChatRoomInboxRow> findInboxRows(@Param("userId") Long userId);
+
+    @Query(INBOX_SELECT + "AND LOWER(cr.name) LIKE LOWER(CONCAT('%', :query, '%')) " + INBOX_ORDER)
+    List<ChatRoomInboxRow> searchInboxRows(@Param("userId") Long userId, @Param("query") String query);
+
+    @Query(INBOX_SELECT + "AND cr.id = :chatRoomId")
+    Optional<ChatRoomInboxRow> findInboxRow(@Param("userId") Long userId, @Param("chatRoomId") Long chatRoomId);
+
+    @Query("SELECT m FROM ChatRoomMember m JOIN FETCH m.user " +
+           "WHERE m.chatRoom.id IN :chatRoomIds AND m.leftAt IS NULL ORDER BY m.id ASC")
+    List<ChatRoomMember> findActiveMembersWithUserByChatRoomIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
     @Query("SELECT m FROM ChatRoomMember m WHERE m.chatRoom.id = :chatRoomId AND m.leftAt IS NULL")
     List<ChatRoomMember> findActiveMembersByChatRoomId(@Param("chatRoomId") Long chatRoomId);
 
@@ -0,0 +1,16 @@
+package com.katoksai.backend.repository;
+
+import com.katoksai.backend.entity.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    @Query("SELECT s FROM ConversationSummary s WHERE s.chatRoom.id = :chatRoomId AND s.user.id = :userId")
+    Optional<ConversationSummary> findByChatRoomIdAndUserId(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,9 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
     @Query("SELECT f FROM Friendship f WHERE f.user.id = :userId AND f.friend.id = :friendId")
     Optional<Friendship> findByUserIdAndFriendId(@Param("userId") Long userId, @Param("friendId") Long friendId);
 
+    @Query("SELECT f FROM Friendship f WHERE f.user.id = :userId AND f.friend.id IN :friendIds")
+    List<Friendship> findByUserIdAndFriendIdIn(@Param("userId") Long userId, @Param("friendIds") Collection<Long> friendIds);
+
     @Query("SELECT f FROM Friendship f WHERE f.user.id = :userId AND f.status = 'ACCEPTED' " +
            "AND (LOWER(f.friend.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
            "OR LOWER(f.friend.statusMessage) LIKE LOWER(CONCAT('%', :query, '%')))")
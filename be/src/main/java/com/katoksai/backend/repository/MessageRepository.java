@@ -18,11 +18,27 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId AND m.isDeleted = false ORDER BY m.createdAt DESC")
     Page<Message> findByChatRoomId(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
 
-    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId AND m.isDeleted = false ORDER BY m.createdAt ASC")
+    // Keyset pagination: id 기준 정렬이므로 OFFSET/COUNT 없이 커서 위치에서 바로 조회
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId AND m.isDeleted = false " +
+           "ORDER BY m.id DESC")
+    List<Message> findLatestByChatRoomId(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId " +
+           "AND m.id < :before AND m.isDeleted = false ORDER BY m.id DESC")
+    List<Message> findBeforeCursor(@Param("chatRoomId") Long chatRoomId, @Param("before") Long before, Pageable pageable);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId " +
+           "AND m.id > :after AND m.isDeleted = false ORDER BY m.id ASC")
+    List<Message> findAfterCursor(@Param("chatRoomId") Long chatRoomId, @Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId AND m.isDeleted = false ORDER BY m.createdAt ASC")
     List<Message> findAllByChatRoomIdOrderByCreatedAtAsc(@Param("chatRoomId") Long chatRoomId);
 
     Optional<Message> findTopByChatRoomIdAndIsDeletedFalseOrderByCreatedAtDesc(Long chatRoomId);
 
+    @Query("SELECT COALESCE(MAX(m.id), 0L) FROM Message m WHERE m.chatRoom.id = :chatRoomId AND m.isDeleted = false")
+    Long findLastMessageId(@Param("chatRoomId") Long chatRoomId);
+
     @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId " +
            "AND m.createdAt > :after AND m.isDeleted = false ORDER BY m.createdAt ASC")
     List<Message> findMessagesSince(@Param("chatRoomId") Long chatRoomId, @Param("after") LocalDateTime after);
@@ -40,4 +56,8 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId AND m.sender.id = :senderId AND m.isDeleted = false ORDER BY m.createdAt DESC")
     List<Message> findByChatRoomIdAndSenderIdOrderByCreatedAtDesc(@Param("chatRoomId") Long chatRoomId, @Param("senderId") Long senderId);
+
+    // 말투 분석용 최근 메시지 샘플 (개수 제한)
+    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId AND m.sender.id = :senderId AND m.isDeleted = false ORDER BY m.id DESC")
+    List<Message> findRecentByChatRoomIdAndSenderId(@Param("chatRoomId") Long chatRoomId, @Param("senderId") Long senderId, Pageable pageable);
 }
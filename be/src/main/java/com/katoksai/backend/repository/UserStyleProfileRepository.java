@@ -0,0 +1,48 @@
+package com.katoksai.backend.repository;
+
+import com.katoksai.backend.entity.UserStyleProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserStyleProfileRepository extends JpaRepository<UserStyleProfile, Long> {
+
+    Optional<UserStyleProfile> findByChatRoomIdAndUserId(Long chatRoomId, Long userId);
+
+    // 메시지 1건 반영 - 프로필이 아직 없으면 0 반환
+    @Modifying
+    @Query("UPDATE UserStyleProfile p SET p.messageCount = p.messageCount + 1, " +
+           "p.emojiMessageCount = p.emojiMessageCount + :emoji, " +
+           "p.laughterMessageCount = p.laughterMessageCount + :laughter, " +
+           "p.exclamationCount = p.exclamationCount + :exclamation, " +
+           "p.politeMessageCount = p.politeMessageCount + :polite, " +
+           "p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.chatRoom.id = :chatRoomId AND p.user.id = :userId")
+    int increment(@Param("chatRoomId") Long chatRoomId,
+                  @Param("userId") Long userId,
+                  @Param("emoji") long emoji,
+                  @Param("laughter") long laughter,
+                  @Param("exclamation") long exclamation,
+                  @Param("polite") long polite);
+
+    // 프로필 생성 - 동시에 다른 요청이 먼저 만들었으면 아무것도 하지 않고 0 반환
+    // ON CONFLICT DO NOTHING 은 PostgreSQL 과 H2(PostgreSQL 모드) 모두 지원하고 실패한 INSERT 와 달리 트랜잭션을 중단시키지 않음
+    @Modifying
+    @Query(value = "INSERT INTO user_style_profiles (chat_room_id, user_id, message_count, emoji_message_count, " +
+                   "laughter_message_count, exclamation_count, polite_message_count, updated_at) " +
+                   "VALUES (:chatRoomId, :userId, :messages, :emoji, :laughter, :exclamation, :polite, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("chatRoomId") Long chatRoomId,
+                       @Param("userId") Long userId,
+                       @Param("messages") long messages,
+                       @Param("emoji") long emoji,
+                       @Param("laughter") long laughter,
+                       @Param("exclamation") long exclamation,
+                       @Param("polite") long polite);
+}
@@ -3,6 +3,7 @@ package com.katoksai.backend.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katoksai.backend.config.AIProperties;
 import com.katoksai.backend.dto.response.MessageResponse;
 import com.katoksai.backend.entity.Friendship;
 import com.katoksai.backend.entity.Message;
@@ -12,12 +13,16 @@ import com.katoksai.backend.repository.FriendshipRepository;
 import com.katoksai.backend.repository.MessageRepository;
 import com.katoksai.backend.repository.UserRepository;
 import com.katoksai.backend.repository.UserSettingsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -25,12 +30,25 @@ import java.util.stream.Collectors;
 public class AIService {
 
     private final OpenAIClient openAIClient;
+    private final ConversationSummaryService conversationSummaryService;
+    private final RelationshipAnalysisCache relationshipAnalysisCache;
+    private final LocalEventScorer localEventScorer;
+    private final UserStyleService userStyleService;
+    private final AIProperties aiProperties;
+    private final MeterRegistry meterRegistry;
+    private final LlmMetrics llmMetrics;
+    private final LlmGuard llmGuard;
+    private final EventDetectionBatcher eventDetectionBatcher;
+    private final ChatContextEncoder chatContextEncoder;
+    private final StructuredOutputParser structuredOutputParser;
     private final MessageRepository messageRepository;
     private final FriendshipRepository friendshipRepository;
     private final UserSettingsRepository userSettingsRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
 
+    private static final String DEFAULT_REPLY_INSIGHT = "대화 분석을 기반으로 추천합니다";
+
     private static final String RELATIONSHIP_ANALYSIS_PROMPT = """
         당신은 인간관계 분석 전문가입니다. 주어진 채팅 기록을 분석하여 두 사람의 관계를 파악해주세요.
 
@@ -52,31 +70,20 @@ public class AIService {
         당신은 카카오톡 메시지 스타일 모방 전문가입니다.
 
         ## 핵심 임무
-        "%s"님이 **이 친구에게** 보낸 실제 메시지들을 분석하고, 3가지 스타일의 답장을 작성하세요.
+        사용자가 **이 친구에게** 보낸 실제 메시지들을 분석하고, 사용자 대신 보낼 3가지 스타일의 답장을 작성하세요.
+        사용자 이름, 사용자가 이 친구에게 보낸 실제 메시지들, 최근 대화 맥락, 상황(이벤트/친밀도/관계)은 아래 메시지로 주어집니다.
+        **실제 메시지들이 가장 중요한 근거입니다.**
 
         **절대로 "결혼 축하해! 행복하게 잘 살아~" 같은 뻔한 템플릿 금지!**
 
-        ### [핵심] 이 친구에게 보낸 "%s"님의 실제 메시지들:
-        ```
-        %s
-        ```
-
-        ### 상황:
-        - 이벤트: %s
-        - 친밀도: %d/100
-        - 관계: %s
-
-        ### 최근 대화 맥락:
-        %s
-
         ## 반드시 아래 3가지 타입의 답장을 생성하세요:
         1. **정중한** - 예의 바르고 부드러운 톤, 이모지 적절히 사용
         2. **친근한** - 친한 친구처럼 텐션 높게, 이모지와 느낌표 많이 사용
         3. **공식적** - 격식 있고 간결하게, 이모지 없이
 
         ## 중요 규칙
-        - 위 사용자 메시지에서 반말 쓰면 → 반말로 작성
-        - 위 사용자 메시지에서 존댓말 쓰면 → 존댓말로 작성
+        - 사용자의 실제 메시지에서 반말 쓰면 → 반말로 작성
+        - 사용자의 실제 메시지에서 존댓말 쓰면 → 존댓말로 작성
         - 각 타입별로 확실히 다른 느낌이 나야 함
 
         JSON만 반환 (tone은 반드시 "정중한", "친근한", "공식적" 중 하나):
@@ -135,65 +142,65 @@ public class AIService {
         JSON만 반환하고 다른 설명은 하지 마세요.
         """;
 
-    private static final String EVENT_DETECTION_PROMPT = """
-        당신은 메시지 분석 전문가입니다. 다음 메시지에서 특별한 이벤트가 감지되는지 분석해주세요.
-
-        감지 가능한 이벤트:
-        - WEDDING: 결혼, 청첩장, 웨딩 관련
-        - BIRTHDAY: 생일 관련
-        - FUNERAL: 부고, 장례, 조문 관련
-        - REUNION: 동창회, 모임, 오랜만의 연락
-        - GENERAL: 특별한 이벤트 없음
-
-        메시지: "%s"
-
-        다음 JSON 형식으로 반환해주세요:
-        {
-            "eventType": "이벤트 유형",
-            "confidence": 0.0~1.0 사이의 확신도,
-            "keywords": ["감지된 키워드들"],
-            "context": "이벤트에 대한 추가 컨텍스트"
-        }
-
-        JSON만 반환하고 다른 설명은 하지 마세요.
-        """;
-
     /**
      * 채팅 기록 기반 관계 분석
      */
     public RelationshipAnalysis analyzeRelationship(Long chatRoomId, Long userId, Long friendId) {
-        // 채팅 기록 가져오기
-        List<Message> messages = messageRepository.findAllByChatRoomIdOrderByCreatedAtAsc(chatRoomId);
+        // 마지막 메시지 기준으로 캐시 조회 (대화가 그대로면 같은 분석 결과 재사용)
+        Long lastMessageId = messageRepository.findLastMessageId(chatRoomId);
+        return relationshipAnalysisCache.get(chatRoomId, userId, friendId, lastMessageId)
+                .orElseGet(() -> {
+                    RelationshipAnalysis analysis = requestRelationshipAnalysis(chatRoomId, userId, friendId);
+                    // 분석 실패로 인한 기본값은 캐시하지 않음
+                    if (!analysis.equals(getDefaultRelationshipAnalysis())) {
+                        relationshipAnalysisCache.put(chatRoomId, userId, friendId, lastMessageId, analysis);
+                    }
+                    return analysis;
+                });
+    }
 
-        if (messages.isEmpty()) {
+    private RelationshipAnalysis requestRelationshipAnalysis(Long chatRoomId, Long userId, Long friendId) {
+        // 장애로 LLM 호출이 차단된 동안은 대화 조회 없이 바로 기본값
+        if (!llmGuard.isCallPermitted(LlmOperation.RELATIONSHIP_ANALYSIS)) {
+            llmMetrics.recordFallback(LlmOperation.RELATIONSHIP_ANALYSIS, "circuit_open");
             return getDefaultRelationshipAnalysis();
         }
 
-        // 채팅 기록 포맷팅
-        String chatHistory = formatChatHistory(messages, userId);
+        // 누적 요약 + 최근 대화 가져오기
+        ConversationSummaryService.ConversationContext context = conversationSummaryService.getContext(chatRoomId, userId);
+
+        if (context.isEmpty()) {
+            llmMetrics.recordFallback(LlmOperation.RELATIONSHIP_ANALYSIS, "no_context");
+            return getDefaultRelationshipAnalysis();
+        }
+
+        // 채팅 기록 포맷팅 (토큰 예산 내로 압축)
+        String chatHistory = chatContextEncoder.encode(context, userId, aiProperties.getContext().getRelationshipTokens());
 
         // 기존 친밀도 정보 가져오기
         Integer currentIntimacy = friendshipRepository.findByUserIdAndFriendId(userId, friendId)
                 .map(Friendship::getIntimacyScore)
                 .orElse(50);
 
-        String userMessage = String.format(
-                "현재 친밀도 점수: %d/100\n\n채팅 기록:\n%s",
-                currentIntimacy, chatHistory
-        );
+        PromptBuilder.Prompt prompt = PromptBuilder.withInstructions(RELATIONSHIP_ANALYSIS_PROMPT)
+                .section("채팅 기록", chatHistory)
+                .section("현재 친밀도 점수", currentIntimacy + "/100")
+                .build();
 
-        String response = openAIClient.chat(RELATIONSHIP_ANALYSIS_PROMPT, userMessage);
+        String response = openAIClient.chat(LlmOperation.RELATIONSHIP_ANALYSIS, prompt, RelationshipAnalysis.class);
 
         if (response == null) {
+            llmMetrics.recordFallback(LlmOperation.RELATIONSHIP_ANALYSIS, "llm_error");
             return getDefaultRelationshipAnalysis();
         }
 
-        try {
-            return objectMapper.readValue(response, RelationshipAnalysis.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse relationship analysis response", e);
+        RelationshipAnalysis analysis = structuredOutputParser.parse(
+                LlmOperation.RELATIONSHIP_ANALYSIS, response, RelationshipAnalysis.class);
+        if (analysis == null) {
+            llmMetrics.recordFallback(LlmOperation.RELATIONSHIP_ANALYSIS, "parse_error");
             return getDefaultRelationshipAnalysis();
         }
+        return analysis;
     }
 
     /**
@@ -205,6 +212,97 @@ public class AIService {
             Long friendId,
             String eventType
     ) {
+        if (!llmGuard.isCallPermitted(LlmOperation.REPLY_GENERATION)) {
+            return getCircuitOpenReplyResult(chatRoomId, userId, friendId, eventType);
+        }
+
+        ReplyPrompt replyPrompt = buildReplyPrompt(chatRoomId, userId, friendId, eventType);
+
+        String response = openAIClient.chat(LlmOperation.REPLY_GENERATION, replyPrompt.prompt(), ReplyGenerationResult.class);
+
+        log.info("OpenAI response: {}", response != null ? response.substring(0, Math.min(200, response.length())) + "..." : "NULL");
+
+        if (response == null) {
+            log.warn("OpenAI returned null, using fallback");
+            return getDefaultReplyResult(eventType, replyPrompt.intimacyScore(), replyPrompt.userStyle(), "llm_error");
+        }
+
+        return parseReplyResult(response, eventType, replyPrompt);
+    }
+
+    /**
+     * 스트리밍 답장 생성 - replies 배열의 각 항목이 완성되는 즉시 onReply로 전달하고,
+     * 완료 후 전체 결과(ReplyGenerationResult)를 반환
+     */
+    public ReplyGenerationResult generateReplyStream(
+            Long chatRoomId,
+            Long userId,
+            Long friendId,
+            String eventType,
+            Consumer<ReplyOption> onReply
+    ) {
+        if (!llmGuard.isCallPermitted(LlmOperation.REPLY_GENERATION)) {
+            ReplyGenerationResult fallback = getCircuitOpenReplyResult(chatRoomId, userId, friendId, eventType);
+            fallback.replies().forEach(onReply);
+            return fallback;
+        }
+
+        ReplyPrompt replyPrompt = buildReplyPrompt(chatRoomId, userId, friendId, eventType);
+
+        JsonArrayElementStreamParser parser = new JsonArrayElementStreamParser("replies");
+        List<ReplyOption> streamedReplies = new ArrayList<>();
+        StringBuilder fullResponse = new StringBuilder();
+
+        try {
+            // onReply 는 SSE 전송처럼 블로킹일 수 있으므로 netty 이벤트 루프가 아닌 호출 스레드에서 소비
+            for (String delta : openAIClient.chatStream(
+                    LlmOperation.REPLY_GENERATION, replyPrompt.prompt(), ReplyGenerationResult.class).toIterable()) {
+                fullResponse.append(delta);
+                for (String element : parser.feed(delta)) {
+                    try {
+                        ReplyOption option = objectMapper.readValue(element, ReplyOption.class);
+                        streamedReplies.add(option);
+                        onReply.accept(option);
+                    } catch (JsonProcessingException e) {
+                        log.warn("Failed to parse streamed reply option: {}", e.getMessage());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Reply stream failed: {}", e.getMessage());
+        }
+
+        if (fullResponse.isEmpty()) {
+            log.warn("OpenAI stream returned nothing, using fallback");
+            ReplyGenerationResult fallback = getDefaultReplyResult(eventType, replyPrompt.intimacyScore(), replyPrompt.userStyle(), "llm_error");
+            if (streamedReplies.isEmpty()) {
+                fallback.replies().forEach(onReply);
+            }
+            return fallback;
+        }
+
+        ReplyGenerationResult result = parseReplyResult(fullResponse.toString(), eventType, replyPrompt);
+        // 스트림이 중간에 끊겨 전체 파싱에 실패한 경우에도 이미 받은 답장은 유지
+        if (!streamedReplies.isEmpty() && (result.replies() == null || result.replies().size() < streamedReplies.size())) {
+            return new ReplyGenerationResult(streamedReplies, 0, result.aiInsight(), null);
+        }
+        return result;
+    }
+
+    /**
+     * LLM 호출이 차단된 동안의 답장 - 프롬프트/관계 분석 없이 친밀도와 말투만 조회하여 기본 답장 생성
+     */
+    private ReplyGenerationResult getCircuitOpenReplyResult(Long chatRoomId, Long userId, Long friendId, String eventType) {
+        Integer intimacyScore = friendshipRepository.findByUserIdAndFriendId(userId, friendId)
+                .map(Friendship::getIntimacyScore)
+                .orElse(50);
+        List<Message> userMessages = messageRepository.findRecentByChatRoomIdAndSenderId(
+                chatRoomId, userId, PageRequest.of(0, UserStyleService.SAMPLE_SIZE));
+        UserStyleService.UserStyle userStyle = userStyleService.getStyle(chatRoomId, userId, userMessages);
+        return getDefaultReplyResult(eventType, intimacyScore, userStyle, "circuit_open");
+    }
+
+    private ReplyPrompt buildReplyPrompt(Long chatRoomId, Long userId, Long friendId, String eventType) {
         // 사용자 이름 가져오기
         String userName = userRepository.findById(userId)
                 .map(User::getName)
@@ -215,118 +313,88 @@ public class AIService {
                 .map(Friendship::getIntimacyScore)
                 .orElse(50);
 
-        // 해당 채팅방에서 사용자의 과거 메시지 수집 (개인화된 스타일 학습용) - 최근 30개
-        List<Message> userMessages = messageRepository.findByChatRoomIdAndSenderIdOrderByCreatedAtDesc(chatRoomId, userId);
-        int styleLimit = Math.min(30, userMessages.size());
-        String userStyleMessages = userMessages.subList(0, styleLimit).stream()
-                .map(Message::getContent)
-                .collect(Collectors.joining("\n"));
+        // 해당 채팅방에서 사용자의 최근 메시지 샘플 (개인화된 스타일 학습용) - 최근 30개만 조회
+        List<Message> userMessages = messageRepository.findRecentByChatRoomIdAndSenderId(
+                chatRoomId, userId, PageRequest.of(0, UserStyleService.SAMPLE_SIZE));
+        String userStyleMessages = chatContextEncoder.packRecent(
+                userMessages.stream().map(Message::getContent).toList(),
+                aiProperties.getContext().getReplyStyleTokens());
 
         log.info("Analyzing {} messages from chatRoom {} for user {}", userMessages.size(), chatRoomId, userName);
 
-        // 현재 채팅방의 최근 대화 (맥락용)
-        List<Message> recentMessages = messageRepository.findAllByChatRoomIdOrderByCreatedAtAsc(chatRoomId);
-        int startIndex = Math.max(0, recentMessages.size() - 15);
-        List<Message> limitedMessages = recentMessages.subList(startIndex, recentMessages.size());
-        String recentChat = formatChatHistory(limitedMessages, userId);
+        // 현재 채팅방의 최근 대화 (맥락용) - 최근 15개만 조회
+        List<Message> limitedMessages = new ArrayList<>(
+                messageRepository.findLatestByChatRoomId(chatRoomId, PageRequest.of(0, 15)));
+        Collections.reverse(limitedMessages);
+        String recentChat = chatContextEncoder.encode(limitedMessages, userId, aiProperties.getContext().getReplyRecentTokens());
 
         // 관계 분석
         RelationshipAnalysis relationshipAnalysis = analyzeRelationship(chatRoomId, userId, friendId);
 
-        String prompt = String.format(
-                REPLY_GENERATION_PROMPT,
-                userName,           // 사용자 이름 (첫 번째)
-                userName,           // 사용자 이름 (두 번째)
-                userStyleMessages.isEmpty() ? "(메시지 없음)" : userStyleMessages,  // 이 친구에게 보낸 메시지들
-                eventType,          // 이벤트 유형
-                intimacyScore,      // 친밀도
-                relationshipAnalysis.summary(),  // 관계 분석
-                recentChat.isEmpty() ? "(대화 없음)" : recentChat          // 최근 대화 맥락
-        );
+        // 고정 지시문은 system 으로, 요청 데이터는 덜 바뀌는 것부터 순서대로 user 메시지에 배치
+        PromptBuilder.Prompt prompt = PromptBuilder.withInstructions(REPLY_GENERATION_PROMPT)
+                .section("사용자 이름", userName)
+                .section("[핵심] 이 친구에게 보낸 사용자의 실제 메시지들", userStyleMessages, "(메시지 없음)")
+                .section("최근 대화 맥락", recentChat, "(대화 없음)")
+                .section("상황", String.format("- 이벤트: %s\n- 친밀도: %d/100\n- 관계: %s",
+                        eventType, intimacyScore, relationshipAnalysis.summary()))
+                .build();
 
         log.info("=== AI Reply Generation ===");
         log.info("User: {}, Event: {}, Intimacy: {}", userName, eventType, intimacyScore);
         log.info("User messages count: {}", userMessages.size());
         log.info("Recent chat: {}", recentChat.length() > 100 ? recentChat.substring(0, 100) + "..." : recentChat);
 
-        String response = openAIClient.chat("", prompt);
+        // 사용자 스타일 (fallback용) - 누적 프로필 기반
+        UserStyleService.UserStyle userStyle = userStyleService.getStyle(chatRoomId, userId, userMessages);
 
-        log.info("OpenAI response: {}", response != null ? response.substring(0, Math.min(200, response.length())) + "..." : "NULL");
-
-        // 사용자 스타일 분석 (fallback용)
-        UserStyle userStyle = analyzeUserStyle(userMessages);
-
-        if (response == null) {
-            log.warn("OpenAI returned null, using fallback");
-            return getDefaultReplyResult(eventType, intimacyScore, userStyle);
-        }
+        return new ReplyPrompt(prompt, intimacyScore, userStyle);
+    }
 
-        try {
-            // JSON 추출 (마크다운 코드 블록 제거)
-            String jsonResponse = extractJson(response);
-            log.info("Extracted JSON: {}", jsonResponse.substring(0, Math.min(200, jsonResponse.length())) + "...");
-
-            ReplyGenerationResult result = objectMapper.readValue(jsonResponse, ReplyGenerationResult.class);
-            log.info("Successfully parsed AI response with {} replies", result.replies() != null ? result.replies().size() : 0);
-            return result;
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse reply generation response: {}", e.getMessage());
+    private ReplyGenerationResult parseReplyResult(String response, String eventType, ReplyPrompt replyPrompt) {
+        ReplyGenerationResult result = structuredOutputParser.parse(
+                LlmOperation.REPLY_GENERATION, response, ReplyGenerationResult.class);
+        if (result == null) {
             log.error("Raw response was: {}", response);
-            return getDefaultReplyResult(eventType, intimacyScore, userStyle);
+            return getDefaultReplyResult(eventType, replyPrompt.intimacyScore(), replyPrompt.userStyle(), "parse_error");
         }
+        log.info("Successfully parsed AI response with {} replies", result.replies() != null ? result.replies().size() : 0);
+        return result;
     }
 
+    private record ReplyPrompt(PromptBuilder.Prompt prompt, int intimacyScore, UserStyleService.UserStyle userStyle) {}
+
     /**
-     * 사용자의 메시지에서 스타일 분석
+     * AI 기반 이벤트 감지 (로컬 키워드 점수 + 애매한 경우만 AI 분석)
      */
-    private UserStyle analyzeUserStyle(List<Message> messages) {
-        if (messages.isEmpty()) {
-            return new UserStyle(false, false, false, "보통");
-        }
-
-        String allContent = messages.stream()
-                .map(Message::getContent)
-                .collect(Collectors.joining(" "));
-
-        // 이모티콘 사용 여부 (이모지 유니코드 범위 체크)
-        boolean usesEmoji = allContent.codePoints()
-                .anyMatch(cp -> (cp >= 0x1F300 && cp <= 0x1F9FF) || (cp >= 0x2600 && cp <= 0x26FF));
-
-        // ㅋㅋ, ㅎㅎ 등 사용 여부
-        boolean usesLaughter = allContent.contains("ㅋㅋ") || allContent.contains("ㅎㅎ");
-
-        // 느낌표 많이 사용 (하이텐션)
-        long exclamationCount = allContent.chars().filter(ch -> ch == '!').count();
-        boolean highTension = exclamationCount > messages.size() * 2;
+    public EventDetectionResult detectEvent(String messageContent) {
+        // 1단계: 로컬 점수로 확실한 경우는 바로 판단
+        LocalEventScorer.Score score = localEventScorer.score(messageContent);
+        AIProperties.EventDetection settings = aiProperties.getEventDetection();
 
-        // 존댓말 사용 여부
-        String politeness = "반말";
-        if (allContent.contains("요") || allContent.contains("습니다") || allContent.contains("세요")) {
-            politeness = "존댓말";
+        if (score.eventType() != null && score.eventScore() >= settings.getEscalationUpper()) {
+            meterRegistry.counter("ai.event.detection", "tier", "local", "result", "event").increment();
+            return new EventDetectionResult(score.eventType().name(), score.eventScore(), score.keywords(), "키워드 기반 로컬 감지");
+        }
+        if (score.eventScore() <= settings.getEscalationLower()) {
+            meterRegistry.counter("ai.event.detection", "tier", "local", "result", "general").increment();
+            return new EventDetectionResult("GENERAL", 1.0 - score.eventScore(), score.keywords(), "특별한 이벤트 없음 (로컬 판단)");
         }
 
-        return new UserStyle(usesEmoji, usesLaughter, highTension, politeness);
+        // 2단계: 애매한 경우만 LLM으로 판단
+        meterRegistry.counter("ai.event.detection", "tier", "llm", "result", "escalated").increment();
+        log.debug("Event detection escalated to LLM: score={}, keywords={}", score.eventScore(), score.keywords());
+        return requestEventDetection(messageContent);
     }
 
-    private record UserStyle(boolean usesEmoji, boolean usesLaughter, boolean highTension, String politeness) {}
-
-    /**
-     * AI 기반 이벤트 감지 (기존 패턴 매칭 + AI 분석)
-     */
-    public EventDetectionResult detectEvent(String messageContent) {
-        String prompt = String.format(EVENT_DETECTION_PROMPT, messageContent);
-        String response = openAIClient.chat("", prompt);
-
-        if (response == null) {
+    private EventDetectionResult requestEventDetection(String messageContent) {
+        if (!llmGuard.isCallPermitted(LlmOperation.EVENT_DETECTION)) {
+            llmMetrics.recordFallback(LlmOperation.EVENT_DETECTION, "circuit_open");
             return new EventDetectionResult("GENERAL", 0.0, List.of(), "분석 실패");
         }
 
-        try {
-            return objectMapper.readValue(response, EventDetectionResult.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse event detection response", e);
-            return new EventDetectionResult("GENERAL", 0.0, List.of(), "파싱 실패");
-        }
+        // 짧은 시간 동안 모인 요청을 한 번의 LLM 호출로 분류
+        return eventDetectionBatcher.submit(messageContent).join();
     }
 
     /**
@@ -334,48 +402,51 @@ public class AIService {
      * 대화 내용을 분석하여 친밀도를 평가하고 참석 여부를 결정
      */
     public WeddingAutoReplyResult generateWeddingAutoReply(Long chatRoomId, Long userId, Long friendId) {
-        // 채팅 기록 가져오기
-        List<Message> messages = messageRepository.findAllByChatRoomIdOrderByCreatedAtAsc(chatRoomId);
+        if (!llmGuard.isCallPermitted(LlmOperation.WEDDING_AUTO_REPLY)) {
+            return getDefaultWeddingReply("circuit_open");
+        }
 
-        if (messages.isEmpty()) {
-            return getDefaultWeddingReply();
+        // 누적 요약 + 최근 대화 가져오기
+        ConversationSummaryService.ConversationContext context = conversationSummaryService.getContext(chatRoomId, userId);
+
+        if (context.isEmpty()) {
+            return getDefaultWeddingReply("no_context");
         }
 
-        // 채팅 기록 포맷팅
-        String chatHistory = formatChatHistory(messages, userId);
+        // 채팅 기록 포맷팅 (토큰 예산 내로 압축)
+        String chatHistory = chatContextEncoder.encode(context, userId, aiProperties.getContext().getWeddingTokens());
 
         // 친구 이름 가져오기
         String friendName = userRepository.findById(friendId)
                 .map(User::getName)
                 .orElse("친구");
 
-        String userMessage = String.format(
-                "분석 대상: 나와 %s의 대화\n\n대화 기록:\n%s",
-                friendName, chatHistory
-        );
+        PromptBuilder.Prompt prompt = PromptBuilder.withInstructions(WEDDING_AUTO_REPLY_PROMPT)
+                .section("분석 대상", "나와 " + friendName + "의 대화")
+                .section("대화 기록", chatHistory)
+                .build();
 
-        String response = openAIClient.chat(WEDDING_AUTO_REPLY_PROMPT, userMessage);
+        String response = openAIClient.chat(LlmOperation.WEDDING_AUTO_REPLY, prompt, WeddingAutoReplyResult.class);
 
         if (response == null) {
-            return getDefaultWeddingReply();
+            return getDefaultWeddingReply("llm_error");
         }
 
-        try {
-            return objectMapper.readValue(response, WeddingAutoReplyResult.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse wedding auto reply response: {}", e.getMessage());
-            return getDefaultWeddingReply();
-        }
+        WeddingAutoReplyResult result = structuredOutputParser.parse(
+                LlmOperation.WEDDING_AUTO_REPLY, response, WeddingAutoReplyResult.class);
+        return result != null ? result : getDefaultWeddingReply("parse_error");
     }
 
-    private WeddingAutoReplyResult getDefaultWeddingReply() {
+    private WeddingAutoReplyResult getDefaultWeddingReply(String reason) {
+        llmMetrics.recordFallback(LlmOperation.WEDDING_AUTO_REPLY, reason);
         return new WeddingAutoReplyResult(
                 50,
                 "대화 기록 분석 불가",
                 false,
                 "분석 실패로 인해 기본 응답",
                 "결혼 축하해! 행복하게 잘 살아~",
-                "AI 분석이 불가능하여 기본 답장을 생성했습니다"
+                "AI 분석이 불가능하여 기본 답장을 생성했습니다",
+                reason
         );
     }
 
@@ -430,50 +501,6 @@ public class AIService {
         );
     }
 
-    private String formatChatHistory(List<Message> messages, Long currentUserId) {
-        return messages.stream()
-                .map(msg -> {
-                    String sender = msg.getSender().getId().equals(currentUserId) ? "나" : msg.getSender().getName();
-                    return String.format("[%s] %s: %s",
-                            msg.getCreatedAt().toString(), sender, msg.getContent());
-                })
-                .collect(Collectors.joining("\n"));
-    }
-
-    /**
-     * OpenAI 응답에서 JSON 추출 (마크다운 코드 블록 제거)
-     */
-    private String extractJson(String response) {
-        if (response == null) return "";
-
-        String trimmed = response.trim();
-
-        // ```json ... ``` 형식 처리
-        if (trimmed.startsWith("```json")) {
-            trimmed = trimmed.substring(7);
-            if (trimmed.endsWith("```")) {
-                trimmed = trimmed.substring(0, trimmed.length() - 3);
-            }
-        }
-        // ``` ... ``` 형식 처리
-        else if (trimmed.startsWith("```")) {
-            trimmed = trimmed.substring(3);
-            if (trimmed.endsWith("```")) {
-                trimmed = trimmed.substring(0, trimmed.length() - 3);
-            }
-        }
-
-        // { 로 시작하는 부분 찾기
-        int jsonStart = trimmed.indexOf('{');
-        int jsonEnd = trimmed.lastIndexOf('}');
-
-        if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-            return trimmed.substring(jsonStart, jsonEnd + 1);
-        }
-
-        return trimmed.trim();
-    }
-
     private RelationshipAnalysis getDefaultRelationshipAnalysis() {
         return new RelationshipAnalysis(
                 "지인",
@@ -486,7 +513,8 @@ public class AIService {
         );
     }
 
-    private ReplyGenerationResult getDefaultReplyResult(String eventType, int intimacy, UserStyle style) {
+    private ReplyGenerationResult getDefaultReplyResult(String eventType, int intimacy, UserStyleService.UserStyle style, String reason) {
+        llmMetrics.recordFallback(LlmOperation.REPLY_GENERATION, reason);
         boolean polite = style.politeness().equals("존댓말");
 
         String politeMessage, friendlyMessage, formalMessage;
@@ -550,7 +578,8 @@ public class AIService {
                     new ReplyOption("공식적", formalMessage, null)
                 ),
                 0,
-                "대화 분석을 기반으로 추천합니다"
+                DEFAULT_REPLY_INSIGHT,
+                reason
         );
     }
 
@@ -568,8 +597,14 @@ public class AIService {
     public record ReplyGenerationResult(
             List<ReplyOption> replies,
             Integer recommendedIndex,
-            String aiInsight
-    ) {}
+            String aiInsight,
+            // LLM 결과 대신 기본 답장을 반환한 이유 (circuit_open, llm_error 등), LLM 결과면 null
+            @ExcludeFromSchema String fallbackReason
+    ) {
+        public boolean fallback() {
+            return fallbackReason != null;
+        }
+    }
 
     public record ReplyOption(
             String tone,
@@ -596,6 +631,12 @@ public class AIService {
             Boolean willAttend,
             String attendanceReason,
             String replyMessage,
-            String summary
-    ) {}
+            String summary,
+            // LLM 결과 대신 기본 답장을 반환한 이유 (circuit_open, llm_error 등), LLM 결과면 null
+            @ExcludeFromSchema String fallbackReason
+    ) {
+        public boolean fallback() {
+            return fallbackReason != null;
+        }
+    }
 }
@@ -0,0 +1,284 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.AIProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * AI 작업 우선순위 스케줄러
+ * - 작업은 우선순위 등급(AiPriority)과 함께 실행되고, 그 안의 LLM 호출은 OpenAI 호출 슬롯을 등급 순으로 할당받음
+ * - 전체 동시 호출 수와 등급별 동시 호출 수를 제한 (하위 등급 한도를 낮게 두어 INTERACTIVE 용 여유 확보)
+ * - 오래 기다린 하위 등급은 aging-interval 마다 한 단계씩 올라가지만 INTERACTIVE 보다 앞서지는 않음
+ * - 등급에 deadline 이 있으면 작업 제출 시점부터 그 안에서만 슬롯 대기와 LLM 호출(재시도 포함)을 진행
+ * 메트릭: ai.scheduler.queue.depth, ai.scheduler.in_flight (class),
+ *        ai.scheduler.wait (class, outcome=granted|timeout)
+ */
+@Component
+@Slf4j
+public class AiJobScheduler {
+
+    private static final ThreadLocal<Job> CURRENT = new ThreadLocal<>();
+
+    private final AsyncTaskExecutor aiExecutor;
+    private final AIProperties.Scheduler settings;
+    private final MeterRegistry meterRegistry;
+
+    // 가상 스레드가 대기 중에 캐리어 스레드를 고정하지 않도록 synchronized 대신 ReentrantLock 사용
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final Map<AiPriority, Integer> inFlight = new EnumMap<>(AiPriority.class);
+    private final Map<AiPriority, Integer> queued = new EnumMap<>(AiPriority.class);
+    private int totalInFlight;
+    private long sequence;
+
+    public AiJobScheduler(AsyncTaskExecutor aiExecutor, AIProperties aiProperties, MeterRegistry meterRegistry) {
+        this.aiExecutor = aiExecutor;
+        this.settings = aiProperties.getScheduler();
+        this.meterRegistry = meterRegistry;
+
+        for (AiPriority priority : AiPriority.values()) {
+            inFlight.put(priority, 0);
+            queued.put(priority, 0);
+            Gauge.builder("ai.scheduler.queue.depth", () -> count(queued, priority))
+                    .description("LLM 호출 슬롯을 기다리는 작업 수")
+                    .tag("class", priority.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("ai.scheduler.in_flight", () -> count(inFlight, priority))
+                    .description("진행 중인 LLM 호출 수")
+                    .tag("class", priority.getTag())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * aiExecutor 에서 우선순위 등급을 지정하여 작업 실행
+     */
+    public <T> CompletableFuture<T> submit(AiPriority priority, Supplier<T> job) {
+        // executor 대기 시간도 요청 처리 시간에 포함되므로 제출 시점부터 deadline 계산
+        long submittedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> call(priority, submittedAt, job), aiExecutor);
+    }
+
+    /**
+     * 현재 스레드에서 우선순위 등급을 지정하여 작업 실행
+     */
+    public <T> T call(AiPriority priority, Supplier<T> job) {
+        return call(priority, System.nanoTime(), job);
+    }
+
+    private <T> T call(AiPriority priority, long startedAt, Supplier<T> job) {
+        Job previous = CURRENT.get();
+        Duration limit = settings.forPriority(priority).getDeadline();
+        Long deadline = limit != null ? startedAt + limit.toNanos() : null;
+        // 중첩 실행은 바깥 작업의 deadline 을 넘지 않음
+        if (previous != null && previous.deadline() != null
+                && (deadline == null || previous.deadline() - deadline < 0)) {
+            deadline = previous.deadline();
+        }
+        CURRENT.set(new Job(priority, deadline));
+        try {
+            return job.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public void run(AiPriority priority, Runnable job) {
+        call(priority, () -> {
+            job.run();
+            return null;
+        });
+    }
+
+    /**
+     * 현재 작업의 우선순위 (지정하지 않은 작업은 BACKGROUND)
+     */
+    public AiPriority currentPriority() {
+        Job job = CURRENT.get();
+        return job != null ? job.priority() : AiPriority.BACKGROUND;
+    }
+
+    /**
+     * 현재 작업의 deadline 까지 남은 시간 (deadline 이 없으면 null)
+     */
+    public Duration remainingBudget() {
+        Job job = CURRENT.get();
+        if (job == null || job.deadline() == null) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0, job.deadline() - System.nanoTime()));
+    }
+
+    /**
+     * 등급별 호출 슬롯 최대 대기 시간
+     */
+    public Duration maxWait(AiPriority priority) {
+        return settings.forPriority(priority).getMaxWait();
+    }
+
+    /**
+     * LLM 호출 슬롯 획득 - max-wait(또는 현재 작업의 deadline) 안에 받지 못하면 null (호출하지 말고 기본 응답 사용)
+     * 획득한 Slot 은 반드시 release 해야 함
+     */
+    public Slot acquire(AiPriority priority) {
+        AIProperties.Scheduler.PriorityClass limits = settings.forPriority(priority);
+        long start = System.nanoTime();
+        long remaining = limits.getMaxWait().toNanos();
+        Duration budget = remainingBudget();
+        if (budget != null) {
+            remaining = Math.min(remaining, budget.toNanos());
+        }
+
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(priority, start, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            queued.merge(priority, 1, Integer::sum);
+            dispatch();
+
+            while (!waiter.granted && remaining > 0) {
+                try {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                // 대기열 순위는 시간에 따라 바뀌므로 깨어날 때마다 다시 배정
+                dispatch();
+            }
+
+            if (!waiter.granted) {
+                waiters.remove(waiter);
+                queued.merge(priority, -1, Integer::sum);
+                recordWait(priority, "timeout", start);
+                log.debug("AI scheduler slot wait timed out for {}", priority);
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        recordWait(priority, "granted", start);
+        return new Slot(priority);
+    }
+
+    private void release(AiPriority priority) {
+        lock.lock();
+        try {
+            inFlight.merge(priority, -1, Integer::sum);
+            totalInFlight--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock 안에서 호출 - 남은 슬롯을 순위가 가장 높은 대기 작업부터 배정
+    private void dispatch() {
+        long now = System.nanoTime();
+        while (totalInFlight < settings.getMaxConcurrent()) {
+            Waiter best = null;
+            int bestRank = Integer.MAX_VALUE;
+            for (Waiter waiter : waiters) {
+                if (inFlight.get(waiter.priority) >= settings.forPriority(waiter.priority).getMaxConcurrent()) {
+                    continue;
+                }
+                int rank = rank(waiter, now);
+                if (best == null || rank < bestRank || (rank == bestRank && waiter.sequence < best.sequence)) {
+                    best = waiter;
+                    bestRank = rank;
+                }
+            }
+            if (best == null) {
+                return;
+            }
+
+            waiters.remove(best);
+            queued.merge(best.priority, -1, Integer::sum);
+            inFlight.merge(best.priority, 1, Integer::sum);
+            totalInFlight++;
+            best.granted = true;
+            best.condition.signal();
+        }
+    }
+
+    // 작을수록 먼저 - 하위 등급은 대기 시간에 따라 올라가되 INTERACTIVE(0) 와 같아지지는 않음
+    private int rank(Waiter waiter, long now) {
+        if (waiter.priority == AiPriority.INTERACTIVE) {
+            return 0;
+        }
+        long aged = (now - waiter.enqueuedAt) / Math.max(1, settings.getAgingInterval().toNanos());
+        return (int) Math.max(1, waiter.priority.ordinal() - aged);
+    }
+
+    private void recordWait(AiPriority priority, String outcome, long start) {
+        Timer.builder("ai.scheduler.wait")
+                .description("LLM 호출 슬롯 대기 시간")
+                .tag("class", priority.getTag())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private int count(Map<AiPriority, Integer> counts, AiPriority priority) {
+        lock.lock();
+        try {
+            return counts.get(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final class Slot {
+        private final AiPriority priority;
+        private boolean released;
+
+        private Slot(AiPriority priority) {
+            this.priority = priority;
+        }
+
+        public synchronized void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            AiJobScheduler.this.release(priority);
+        }
+    }
+
+    private record Job(AiPriority priority, Long deadline) {}
+
+    private static final class Waiter {
+        private final AiPriority priority;
+        private final long enqueuedAt;
+        private final long sequence;
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(AiPriority priority, long enqueuedAt, long sequence, Condition condition) {
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.katoksai.backend.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * AI 작업 우선순위 등급 (순서대로 높은 우선순위)
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AiPriority {
+    // 사용자가 응답을 기다리는 요청 (답장 생성, 관계 분석, 이벤트 감지 API)
+    INTERACTIVE("interactive"),
+    // 사용자가 기다리지 않는 자동 처리 (결혼 자동 답장)
+    BACKGROUND("background"),
+    // 미리 계산/일괄 분석 (답장 미리 생성 등)
+    BATCH("batch");
+
+    // 메트릭 태그 값
+    private final String tag;
+}
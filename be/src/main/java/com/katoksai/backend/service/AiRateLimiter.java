@@ -0,0 +1,99 @@
+package com.katoksai.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.katoksai.backend.config.AIProperties;
+import com.katoksai.backend.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI API 사용자별 요청 제한 (token bucket)
+ * 버킷 하나를 "다음 토큰이 가득 차는 시각" 하나로 표현하여 AtomicLong CAS 만으로 갱신 (GCRA)
+ * - refill-interval 마다 토큰 1개 충전, 최대 capacity 개까지 연속 요청 허용
+ * - 오래 사용하지 않은 버킷은 어차피 가득 찬 상태이므로 캐시에서 제거해도 결과가 같음
+ * 메트릭: ai.ratelimit.rejected (operation)
+ */
+@Component
+@Slf4j
+public class AiRateLimiter {
+
+    private final AIProperties.RateLimit settings;
+    private final Map<Operation, Cache<String, AtomicLong>> buckets = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> rejectedCounters = new EnumMap<>(Operation.class);
+
+    public AiRateLimiter(AIProperties aiProperties, MeterRegistry meterRegistry) {
+        this.settings = aiProperties.getRateLimit();
+
+        for (Operation operation : Operation.values()) {
+            AIProperties.RateLimit.Bucket limit = settings.forOperation(operation);
+            buckets.put(operation, Caffeine.newBuilder()
+                    .expireAfterAccess(limit.getRefillInterval().multipliedBy(limit.getCapacity()))
+                    .maximumSize(settings.getMaxTrackedUsers())
+                    .build());
+            rejectedCounters.put(operation, Counter.builder("ai.ratelimit.rejected")
+                    .description("요청 제한으로 거절된 AI API 호출 수")
+                    .tag("operation", operation.getTag())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void check(Operation operation, Long userId) {
+        check(operation, "user:" + userId);
+    }
+
+    /**
+     * 토큰 1개 사용 - 남은 토큰이 없으면 RateLimitExceededException (429)
+     */
+    public void check(Operation operation, String subject) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        AIProperties.RateLimit.Bucket limit = settings.forOperation(operation);
+        long interval = limit.getRefillInterval().toNanos();
+        // 버킷이 가득 찬 상태에서 연속으로 보낼 수 있는 요청 수만큼의 여유
+        long tolerance = interval * (limit.getCapacity() - 1);
+        AtomicLong bucket = buckets.get(operation).get(subject, key -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = System.nanoTime();
+            long current = bucket.get();
+            long fullAt = current == Long.MIN_VALUE ? now : Math.max(current, now);
+            long wait = fullAt - tolerance - now;
+            if (wait > 0) {
+                rejectedCounters.get(operation).increment();
+                log.debug("Rate limited {} for {}: retry after {}ms", operation, subject, wait / 1_000_000);
+                throw new RateLimitExceededException(
+                        "요청이 너무 많습니다. 잠시 후 다시 시도해주세요", Duration.ofNanos(wait));
+            }
+            if (bucket.compareAndSet(current, fullAt + interval)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 요청 제한 대상 AI API (메트릭 operation 태그)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Operation {
+        ANALYZE_RELATIONSHIP("analyze_relationship"),
+        // 스트리밍 답장 생성도 같은 버킷 사용
+        GENERATE_REPLY("generate_reply"),
+        DETECT_EVENT("detect_event"),
+        AUTO_REPLY("auto_reply");
+
+        private final String tag;
+    }
+}
@@ -0,0 +1,236 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.AIProperties;
+import com.katoksai.backend.dto.response.MessageResponse;
+import com.katoksai.backend.entity.AutoReplyJob;
+import com.katoksai.backend.entity.ChatRoom;
+import com.katoksai.backend.entity.Message;
+import com.katoksai.backend.entity.User;
+import com.katoksai.backend.entity.UserSettings;
+import com.katoksai.backend.repository.AutoReplyJobRepository;
+import com.katoksai.backend.repository.ChatRoomMemberRepository;
+import com.katoksai.backend.repository.ChatRoomRepository;
+import com.katoksai.backend.repository.MessageRepository;
+import com.katoksai.backend.repository.UserRepository;
+import com.katoksai.backend.repository.UserSettingsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * 결혼 초대 메시지 자동 답장 파이프라인
+ * 1. 메시지 저장 트랜잭션 안에서 작업(AutoReplyJob)을 기록
+ * 2. 커밋 후 크기 제한된 워커 풀에서 LLM 호출 및 답장 저장
+ * 3. 실패 시 backoff 후 재시도, 대기열 초과/서버 재시작 작업은 주기적 스윕으로 복구
+ *    (LLM 실패로 기본 답장이 반환된 경우도 실패로 보고 재시도, 최대 max-attempts 회)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutoReplyPipeline {
+
+    private static final int SWEEP_BATCH_SIZE = 20;
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final AutoReplyJobRepository autoReplyJobRepository;
+    private final MessageRepository messageRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+    private final UserRepository userRepository;
+    private final UserSettingsRepository userSettingsRepository;
+    private final AIService aiService;
+    private final AiJobScheduler aiJobScheduler;
+    private final BroadcastOutboxService broadcastOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor autoReplyExecutor;
+    private final AIProperties aiProperties;
+
+    /**
+     * 자동 답장 작업 등록 (메시지 저장 트랜잭션 안에서 호출)
+     * 사용자 설정에서 replyMode가 AUTO인 경우에만 등록
+     */
+    public void enqueue(ChatRoom chatRoom, User recipient, User sender, Long triggerMessageId) {
+        UserSettings settings = userSettingsRepository.findByUserId(recipient.getId()).orElse(null);
+        log.info("User {} settings: replyMode={}", recipient.getId(),
+                settings != null ? settings.getReplyMode() : "null (no settings)");
+        if (settings == null || settings.getReplyMode() != UserSettings.ReplyMode.AUTO) {
+            log.info("User {} has replyMode={}, skipping auto-reply", recipient.getId(),
+                    settings != null ? settings.getReplyMode() : "null");
+            return;
+        }
+
+        AutoReplyJob job = autoReplyJobRepository.save(AutoReplyJob.builder()
+                .chatRoom(chatRoom)
+                .recipient(recipient)
+                .sender(sender)
+                .triggerMessageId(triggerMessageId)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+
+        eventPublisher.publishEvent(new AutoReplyJobCreated(job.getId()));
+        log.info("Wedding auto-reply job {} queued for user {} in chat room {}", job.getId(), recipient.getId(), chatRoom.getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJobCreated(AutoReplyJobCreated event) {
+        submit(event.jobId());
+    }
+
+    /**
+     * 대기 중인 작업(재시도 예정, 대기열 초과, 재시작으로 중단된 작업) 주기적 처리
+     */
+    @Scheduled(fixedDelayString = "${ai.auto-reply.sweep-interval-ms:30000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(aiProperties.getAutoReply().getStaleAfter());
+
+        int maxAttempts = aiProperties.getAutoReply().getMaxAttempts();
+        Integer failed = transactionTemplate.execute(status ->
+                autoReplyJobRepository.failStaleJobs(staleBefore, now, maxAttempts, "처리 시간 초과"));
+        if (failed != null && failed > 0) {
+            log.error("Failed {} stale auto-reply jobs after {} attempts", failed, maxAttempts);
+        }
+        Integer released = transactionTemplate.execute(status ->
+                autoReplyJobRepository.releaseStaleJobs(staleBefore, now, maxAttempts));
+        if (released != null && released > 0) {
+            log.warn("Released {} stale auto-reply jobs", released);
+        }
+
+        autoReplyJobRepository.findDueJobIds(now, PageRequest.of(0, SWEEP_BATCH_SIZE))
+                .forEach(this::submit);
+    }
+
+    private void submit(Long jobId) {
+        try {
+            autoReplyExecutor.execute(() -> process(jobId));
+        } catch (TaskRejectedException e) {
+            // 워커 풀이 가득 참 - PENDING 상태로 두고 다음 스윕에서 처리
+            log.warn("Auto-reply queue is full, job {} deferred", jobId);
+        }
+    }
+
+    private void process(Long jobId) {
+        Integer claimed = transactionTemplate.execute(status -> autoReplyJobRepository.claim(jobId, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        AutoReplyJob job = autoReplyJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        Long chatRoomId = job.getChatRoom().getId();
+        Long recipientId = job.getRecipient().getId();
+        Long senderId = job.getSender().getId();
+        // 이번 선점의 시도 번호 - 시간 초과로 다시 선점된 작업인지 확인하는 데 사용
+        int attempt = job.getAttempts();
+
+        try {
+            log.info("Processing wedding auto-reply job {} for user {} in chat room {}", jobId, recipientId, chatRoomId);
+
+            // AI 서비스로 답장 생성 (DB 커넥션/트랜잭션을 잡지 않은 상태, 사용자 요청보다 낮은 우선순위)
+            AIService.WeddingAutoReplyResult result = aiJobScheduler.call(AiPriority.BACKGROUND,
+                    () -> aiService.generateWeddingAutoReply(chatRoomId, recipientId, senderId));
+
+            if (result == null || result.replyMessage() == null) {
+                updateJob(jobId, attempt, j -> {
+                    j.setStatus(AutoReplyJob.JobStatus.SKIPPED);
+                    j.setLastError("답장 생성 결과 없음");
+                });
+                return;
+            }
+
+            if (result.fallback()) {
+                // 분석 없이 만든 기본 답장(불참)은 보내지 않고 나중에 다시 시도
+                log.warn("Wedding auto-reply job {} got fallback result: {}", jobId, result.fallbackReason());
+                handleFailure(jobId, attempt, "기본 답장 반환: " + result.fallbackReason());
+                return;
+            }
+
+            Boolean posted = transactionTemplate.execute(status -> {
+                // 완료 상태를 먼저 선점하여 같은 작업의 답장이 두 번 저장되지 않도록
+                if (autoReplyJobRepository.complete(jobId, attempt, LocalDateTime.now()) == 0) {
+                    return false;
+                }
+
+                // 자동 답장 메시지 저장
+                Message autoReply = Message.builder()
+                        .chatRoom(chatRoomRepository.getReferenceById(chatRoomId))
+                        .sender(userRepository.getReferenceById(recipientId))
+                        .content(result.replyMessage())
+                        .type(Message.MessageType.TEXT)
+                        .isAutoReply(true)
+                        .aiInsight(String.format("친밀도: %d점 | %s | %s",
+                                result.intimacyScore(),
+                                Boolean.TRUE.equals(result.willAttend()) ? "참석 예정" : "불참 예정",
+                                result.attendanceReason()))
+                        .build();
+
+                Message savedAutoReply = messageRepository.save(autoReply);
+
+                // 발신자의 읽지 않은 메시지 수 증가
+                chatRoomMemberRepository.incrementUnreadCountForOtherMembers(chatRoomId, recipientId);
+
+                autoReplyJobRepository.findById(jobId).orElseThrow().setReplyMessageId(savedAutoReply.getId());
+
+                // Broadcast auto-reply via WebSocket (커밋 후 outbox 디스패처가 전송)
+                broadcastOutboxService.record(chatRoomId, MessageResponse.from(savedAutoReply));
+                return true;
+            });
+
+            if (!Boolean.TRUE.equals(posted)) {
+                log.warn("Wedding auto-reply job {} attempt {} was taken over by another worker, reply discarded",
+                        jobId, attempt);
+                return;
+            }
+
+            log.info("Wedding auto-reply sent: chatRoom={}, from={}, intimacy={}, willAttend={}",
+                    chatRoomId, recipientId, result.intimacyScore(), result.willAttend());
+        } catch (Exception e) {
+            log.error("Failed to process wedding auto-reply job {}: {}", jobId, e.getMessage(), e);
+            handleFailure(jobId, attempt, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void handleFailure(Long jobId, int attempt, String error) {
+        AIProperties.AutoReply settings = aiProperties.getAutoReply();
+        updateJob(jobId, attempt, job -> {
+            job.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+            if (job.getAttempts() >= settings.getMaxAttempts()) {
+                job.setStatus(AutoReplyJob.JobStatus.FAILED);
+                log.error("Auto-reply job {} failed after {} attempts", jobId, job.getAttempts());
+            } else {
+                long backoffMillis = settings.getRetryBackoff().toMillis() << (job.getAttempts() - 1);
+                job.setStatus(AutoReplyJob.JobStatus.PENDING);
+                job.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMillis)));
+            }
+        });
+    }
+
+    /**
+     * 이번 시도로 선점한 상태(RUNNING, 같은 시도 번호)일 때만 갱신
+     */
+    private void updateJob(Long jobId, int attempt, Consumer<AutoReplyJob> update) {
+        transactionTemplate.executeWithoutResult(status ->
+                autoReplyJobRepository.findById(jobId)
+                        .filter(job -> job.getStatus() == AutoReplyJob.JobStatus.RUNNING && job.getAttempts() == attempt)
+                        .ifPresent(update));
+    }
+
+    public record AutoReplyJobCreated(Long jobId) {}
+}
@@ -0,0 +1,193 @@
+package com.katoksai.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katoksai.backend.dto.response.MessageResponse;
+import com.katoksai.backend.entity.BroadcastOutbox;
+import com.katoksai.backend.repository.BroadcastOutboxRepository;
+import com.katoksai.backend.repository.ChatRoomMemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * WebSocket 브로드캐스트 outbox
+ * 메시지 저장 트랜잭션 안에서 브로드캐스트할 내용을 기록하고,
+ * 커밋 후 전용 디스패처 스레드가 채팅방별로 묶어 순서대로 전송
+ * (롤백된 메시지는 전송되지 않고, 느린 전송이 트랜잭션을 늘리지 않음)
+ */
+@Service
+@Slf4j
+public class BroadcastOutboxService {
+
+    private static final int DRAIN_BATCH_SIZE = 200;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final BroadcastOutboxRepository broadcastOutboxRepository;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+    private final WebSocketService webSocketService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "broadcast-outbox"));
+    private final AtomicBoolean drainRequested = new AtomicBoolean(false);
+
+    private final Timer deliveryTimer;
+    private final Counter failureCounter;
+
+    public BroadcastOutboxService(BroadcastOutboxRepository broadcastOutboxRepository,
+                                  ChatRoomMemberRepository chatRoomMemberRepository,
+                                  WebSocketService webSocketService,
+                                  ObjectMapper objectMapper,
+                                  TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry) {
+        this.broadcastOutboxRepository = broadcastOutboxRepository;
+        this.chatRoomMemberRepository = chatRoomMemberRepository;
+        this.webSocketService = webSocketService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+
+        // 메시지 커밋(기록)부터 WebSocket 전송까지 걸린 시간
+        this.deliveryTimer = Timer.builder("websocket.broadcast.delivery")
+                .description("Outbox 기록부터 WebSocket 전송까지의 지연")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("websocket.broadcast.failures")
+                .register(meterRegistry);
+        Gauge.builder("websocket.broadcast.pending", broadcastOutboxRepository, BroadcastOutboxRepository::countPending)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 브로드캐스트 기록 (메시지를 저장하는 트랜잭션 안에서 호출)
+     */
+    public void record(Long chatRoomId, MessageResponse message) {
+        try {
+            broadcastOutboxRepository.save(BroadcastOutbox.builder()
+                    .chatRoomId(chatRoomId)
+                    .payload(objectMapper.writeValueAsString(message))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize broadcast payload", e);
+        }
+        eventPublisher.publishEvent(new BroadcastRecorded(chatRoomId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRecorded(BroadcastRecorded event) {
+        requestDrain();
+    }
+
+    /**
+     * 커밋 후 신호를 놓친 항목(서버 재시작, 전송 실패 등) 주기적 처리
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void sweep() {
+        requestDrain();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    private void requestDrain() {
+        // 이미 전송 예약이 있으면 합쳐서 한 번만 실행
+        if (drainRequested.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainRequested.set(false);
+
+        while (true) {
+            List<BroadcastOutbox> batch = broadcastOutboxRepository.findPending(PageRequest.of(0, DRAIN_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            // 채팅방별로 묶어서 멤버 조회는 한 번만, 전송은 기록 순서대로
+            Map<Long, List<BroadcastOutbox>> byRoom = batch.stream()
+                    .collect(Collectors.groupingBy(BroadcastOutbox::getChatRoomId, LinkedHashMap::new, Collectors.toList()));
+
+            List<Long> delivered = new ArrayList<>();
+            List<Long> failed = new ArrayList<>();
+            byRoom.forEach((chatRoomId, entries) -> dispatchRoom(chatRoomId, entries, delivered, failed));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!delivered.isEmpty()) {
+                    broadcastOutboxRepository.deleteAllByIdInBatch(delivered);
+                }
+                broadcastOutboxRepository.findAllById(failed).forEach(entry -> {
+                    entry.setAttempts(entry.getAttempts() + 1);
+                    if (entry.getAttempts() >= MAX_ATTEMPTS) {
+                        entry.setStatus(BroadcastOutbox.OutboxStatus.FAILED);
+                        log.error("Broadcast outbox entry {} failed after {} attempts", entry.getId(), entry.getAttempts());
+                    }
+                });
+            });
+
+            // 실패가 있으면 다음 스윕에서 재시도 (같은 항목을 바로 다시 돌지 않도록)
+            if (!failed.isEmpty() || batch.size() < DRAIN_BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private void dispatchRoom(Long chatRoomId, List<BroadcastOutbox> entries, List<Long> delivered, List<Long> failed) {
+        List<Long> memberIds;
+        try {
+            memberIds = chatRoomMemberRepository.findActiveMembersByChatRoomId(chatRoomId).stream()
+                    .map(member -> member.getUser().getId())
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            log.error("Failed to load members for broadcast in chat room {}: {}", chatRoomId, e.getMessage());
+            failed.add(entries.get(0).getId());
+            failureCounter.increment();
+            return;
+        }
+
+        for (BroadcastOutbox entry : entries) {
+            try {
+                MessageResponse message = objectMapper.readValue(entry.getPayload(), MessageResponse.class);
+                webSocketService.sendMessageToRoom(chatRoomId, message, memberIds);
+                delivered.add(entry.getId());
+                deliveryTimer.record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()));
+            } catch (Exception e) {
+                // 같은 채팅방의 뒤 메시지는 순서 유지를 위해 다음 시도로 미룸
+                log.error("Failed to broadcast outbox entry {}: {}", entry.getId(), e.getMessage());
+                failed.add(entry.getId());
+                failureCounter.increment();
+                return;
+            }
+        }
+    }
+
+    public record BroadcastRecorded(Long chatRoomId) {}
+}
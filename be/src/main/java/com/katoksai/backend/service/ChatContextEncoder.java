@@ -0,0 +1,174 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.entity.Message;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 프롬프트용 대화 컨텍스트 압축기
+ * - 타임스탬프 대신 날짜가 바뀔 때만 상대 날짜 표시 (오늘/어제/N일 전)
+ * - 같은 사람이 연달아 보낸 메시지는 한 줄로 합침
+ * - 토큰 수를 추정하여 예산 안에서 최근 메시지부터 채움
+ */
+@Component
+public class ChatContextEncoder {
+
+    private static final String MESSAGE_SEPARATOR = " / ";
+    private static final String ELLIPSIS = "…";
+    // 메시지 하나가 예산을 독차지하지 않도록 제한
+    private static final int MAX_MESSAGE_TOKENS = 200;
+
+    /**
+     * 토큰 수 추정 (ASCII 약 4자당 1토큰, 한글 등은 글자당 1토큰으로 보수적으로 계산)
+     */
+    public int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            if (cp < 0x80) {
+                ascii++;
+            } else {
+                other++;
+            }
+            i += Character.charCount(cp);
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    /**
+     * 예산을 넘으면 뒤를 잘라냄
+     */
+    public String truncate(String text, int maxTokens) {
+        if (text == null || estimateTokens(text) <= maxTokens) {
+            return text;
+        }
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) / 2;
+            if (estimateTokens(text.substring(0, mid)) < maxTokens) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // surrogate pair 중간에서 자르지 않도록
+        if (low > 0 && Character.isHighSurrogate(text.charAt(low - 1))) {
+            low--;
+        }
+        return text.substring(0, low) + ELLIPSIS;
+    }
+
+    /**
+     * 대화 기록 압축 (messages 는 오래된 순)
+     * 예산 안에서 최근 메시지부터 채우고, 결과는 다시 오래된 순으로 출력
+     */
+    public String encode(List<Message> messages, Long currentUserId, int budgetTokens) {
+        if (messages.isEmpty() || budgetTokens <= 0) {
+            return "";
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Turn> turns = new ArrayList<>();
+        int used = 0;
+
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Message message = messages.get(i);
+            String sender = message.getSender().getId().equals(currentUserId) ? "나" : message.getSender().getName();
+            LocalDate day = message.getCreatedAt() != null ? message.getCreatedAt().toLocalDate() : today;
+            String content = truncate(message.getContent(), MAX_MESSAGE_TOKENS);
+
+            Turn newest = turns.isEmpty() ? null : turns.get(turns.size() - 1);
+            boolean merge = newest != null && newest.sender().equals(sender) && newest.day().equals(day);
+            // 새 줄이면 발신자 이름 + 줄바꿈, 날짜가 바뀌면 날짜 표시 비용도 포함
+            int cost = estimateTokens(content)
+                    + (merge ? estimateTokens(MESSAGE_SEPARATOR) : estimateTokens(sender) + 2)
+                    + (newest == null || !newest.day().equals(day) ? 4 : 0);
+            if (used + cost > budgetTokens) {
+                break;
+            }
+            used += cost;
+
+            if (merge) {
+                newest.contents().add(content);
+            } else {
+                turns.add(new Turn(sender, day, new ArrayList<>(List.of(content))));
+            }
+        }
+
+        Collections.reverse(turns);
+        StringBuilder encoded = new StringBuilder();
+        LocalDate currentDay = null;
+        for (Turn turn : turns) {
+            if (!turn.day().equals(currentDay)) {
+                currentDay = turn.day();
+                encoded.append("[").append(relativeDay(currentDay, today)).append("]\n");
+            }
+            Collections.reverse(turn.contents());
+            encoded.append(turn.sender()).append(": ")
+                    .append(String.join(MESSAGE_SEPARATOR, turn.contents()))
+                    .append('\n');
+        }
+        return encoded.toString().stripTrailing();
+    }
+
+    /**
+     * 누적 요약 + 최근 대화 압축 (요약에는 예산의 최대 1/3 사용)
+     */
+    public String encode(ConversationSummaryService.ConversationContext context, Long currentUserId, int budgetTokens) {
+        if (context.summary() == null) {
+            return encode(context.recentMessages(), currentUserId, budgetTokens);
+        }
+        String summary = truncate(context.summary(), budgetTokens / 3);
+        String recentChat = encode(context.recentMessages(), currentUserId, budgetTokens - estimateTokens(summary));
+        return String.format("[이전 대화 요약]\n%s\n\n[최근 대화]\n%s",
+                summary, recentChat.isEmpty() ? "(대화 없음)" : recentChat);
+    }
+
+    /**
+     * 텍스트 목록을 최신 것부터 예산만큼 채워 줄 단위로 출력 (texts 는 최신 순)
+     */
+    public String packRecent(List<String> newestFirst, int budgetTokens) {
+        List<String> packed = new ArrayList<>();
+        int used = 0;
+        for (String text : newestFirst) {
+            String line = truncate(Objects.requireNonNullElse(text, ""), MAX_MESSAGE_TOKENS);
+            int cost = estimateTokens(line) + 1;
+            if (used + cost > budgetTokens) {
+                break;
+            }
+            used += cost;
+            packed.add(line);
+        }
+        return String.join("\n", packed);
+    }
+
+    private static String relativeDay(LocalDate day, LocalDate today) {
+        long days = ChronoUnit.DAYS.between(day, today);
+        if (days <= 0) {
+            return "오늘";
+        }
+        if (days == 1) {
+            return "어제";
+        }
+        if (days < 30) {
+            return days + "일 전";
+        }
+        if (days < 365) {
+            return (days / 30) + "개월 전";
+        }
+        return (days / 365) + "년 전";
+    }
+
+    private record Turn(String sender, LocalDate day, List<String> contents) {}
+}
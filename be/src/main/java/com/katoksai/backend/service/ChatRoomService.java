@@ -4,12 +4,15 @@ import com.katoksai.backend.dto.request.CreateChatRoomRequest;
 import com.katoksai.backend.dto.response.ChatRoomResponse;
 import com.katoksai.backend.entity.ChatRoom;
 import com.katoksai.backend.entity.ChatRoomMember;
+import com.katoksai.backend.entity.Friendship;
 import com.katoksai.backend.entity.Message;
 import com.katoksai.backend.entity.User;
 import com.katoksai.backend.exception.BusinessException;
 import com.katoksai.backend.exception.ResourceNotFoundException;
+import com.katoksai.backend.repository.ChatRoomInboxRow;
 import com.katoksai.backend.repository.ChatRoomMemberRepository;
 import com.katoksai.backend.repository.ChatRoomRepository;
+import com.katoksai.backend.repository.FriendshipRepository;
 import com.katoksai.backend.repository.MessageRepository;
 import com.katoksai.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +22,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,28 +37,53 @@ public class ChatRoomService {
     private final ChatRoomMemberRepository chatRoomMemberRepository;
     private final UserRepository userRepository;
     private final MessageRepository messageRepository;
+    private final FriendshipRepository friendshipRepository;
     private final FriendService friendService;
 
     public List<ChatRoomResponse> getChatRooms(Long userId) {
-        List<ChatRoom> chatRooms = chatRoomRepository.findByUserId(userId);
+        return toInboxResponses(userId, chatRoomMemberRepository.findInboxRows(userId));
+    }
 
-        return chatRooms.stream()
-                .map(chatRoom -> {
-                    Message lastMessage = messageRepository.findTopByChatRoomIdAndIsDeletedFalseOrderByCreatedAtDesc(chatRoom.getId())
-                            .orElse(null);
+    /**
+     * 채팅방 목록 응답 조립 - 방 개수와 무관하게 멤버/친밀도 조회는 각각 한 번씩만 수행
+     */
+    private List<ChatRoomResponse> toInboxResponses(Long userId, List<ChatRoomInboxRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
 
-                    Integer unreadCount = chatRoomMemberRepository.findByChatRoomIdAndUserId(chatRoom.getId(), userId)
-                            .map(ChatRoomMember::getUnreadCount)
-                            .orElse(0);
+        List<Long> chatRoomIds = rows.stream()
+                .map(row -> row.chatRoom().getId())
+                .collect(Collectors.toList());
 
-                    Integer intimacyScore = getIntimacyScoreForChatRoom(chatRoom, userId);
+        Map<Long, List<ChatRoomMember>> membersByRoom = chatRoomMemberRepository
+                .findActiveMembersWithUserByChatRoomIds(chatRoomIds).stream()
+                .collect(Collectors.groupingBy(m -> m.getChatRoom().getId()));
+
+        // 1:1 채팅방 id -> 상대방 id
+        Map<Long, Long> directFriendByRoom = new HashMap<>();
+        for (ChatRoomInboxRow row : rows) {
+            if (row.chatRoom().getType() == ChatRoom.ChatRoomType.DIRECT) {
+                membersByRoom.getOrDefault(row.chatRoom().getId(), List.of()).stream()
+                        .map(m -> m.getUser().getId())
+                        .filter(memberId -> !memberId.equals(userId))
+                        .findFirst()
+                        .ifPresent(friendId -> directFriendByRoom.put(row.chatRoom().getId(), friendId));
+            }
+        }
 
-                    return ChatRoomResponse.from(chatRoom, userId, lastMessage, unreadCount, intimacyScore);
-                })
-                .sorted((a, b) -> {
-                    if (a.getLastMessageAt() == null) return 1;
-                    if (b.getLastMessageAt() == null) return -1;
-                    return b.getLastMessageAt().compareTo(a.getLastMessageAt());
+        Map<Long, Integer> intimacyByFriend = directFriendByRoom.isEmpty()
+                ? Map.of()
+                : friendshipRepository.findByUserIdAndFriendIdIn(userId, new HashSet<>(directFriendByRoom.values())).stream()
+                        .collect(Collectors.toMap(f -> f.getFriend().getId(), Friendship::getIntimacyScore));
+
+        return rows.stream()
+                .map(row -> {
+                    Long chatRoomId = row.chatRoom().getId();
+                    Long friendId = directFriendByRoom.get(chatRoomId);
+                    Integer intimacyScore = friendId != null ? intimacyByFriend.get(friendId) : null;
+                    return ChatRoomResponse.from(row.chatRoom(), userId, row.lastMessage(), row.unreadCount(),
+                            intimacyScore, membersByRoom.getOrDefault(chatRoomId, List.of()));
                 })
                 .collect(Collectors.toList());
     }
@@ -77,15 +108,8 @@ public class ChatRoomService {
         if (request.getType() == ChatRoom.ChatRoomType.DIRECT && request.getMemberIds().size() == 1) {
             Long otherUserId = request.getMemberIds().get(0);
             return chatRoomRepository.findDirectChatRoom(userId, otherUserId)
-                    .map(existingRoom -> {
-                        Message lastMessage = messageRepository.findTopByChatRoomIdAndIsDeletedFalseOrderByCreatedAtDesc(existingRoom.getId())
-                                .orElse(null);
-                        Integer unreadCount = chatRoomMemberRepository.findByChatRoomIdAndUserId(existingRoom.getId(), userId)
-                                .map(ChatRoomMember::getUnreadCount)
-                                .orElse(0);
-                        Integer intimacyScore = friendService.getIntimacyScore(userId, otherUserId);
-                        return ChatRoomResponse.from(existingRoom, userId, lastMessage, unreadCount, intimacyScore);
-                    })
+                    .flatMap(existingRoom -> chatRoomMemberRepository.findInboxRow(userId, existingRoom.getId()))
+                    .map(row -> toInboxResponses(userId, List.of(row)).get(0))
                     .orElseGet(() -> createNewChatRoom(creator, request));
         }
 
@@ -173,17 +197,7 @@ public class ChatRoomService {
     }
 
     public List<ChatRoomResponse> searchChatRooms(Long userId, String query) {
-        return chatRoomRepository.searchChatRooms(userId, query).stream()
-                .map(chatRoom -> {
-                    Message lastMessage = messageRepository.findTopByChatRoomIdAndIsDeletedFalseOrderByCreatedAtDesc(chatRoom.getId())
-                            .orElse(null);
-                    Integer unreadCount = chatRoomMemberRepository.findByChatRoomIdAndUserId(chatRoom.getId(), userId)
-                            .map(ChatRoomMember::getUnreadCount)
-                            .orElse(0);
-                    Integer intimacyScore = getIntimacyScoreForChatRoom(chatRoom, userId);
-                    return ChatRoomResponse.from(chatRoom, userId, lastMessage, unreadCount, intimacyScore);
-                })
-                .collect(Collectors.toList());
+        return toInboxResponses(userId, chatRoomMemberRepository.searchInboxRows(userId, query));
     }
 
     public Integer getTotalUnreadCount(Long userId) {
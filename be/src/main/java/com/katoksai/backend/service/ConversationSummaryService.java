@@ -0,0 +1,161 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.entity.ConversationSummary;
+import com.katoksai.backend.entity.Message;
+import com.katoksai.backend.repository.ChatRoomRepository;
+import com.katoksai.backend.repository.ConversationSummaryRepository;
+import com.katoksai.backend.repository.MessageRepository;
+import com.katoksai.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅방 대화의 누적 요약 관리
+ * 전체 기록 대신 "요약 + 최근 메시지 일부"만 프롬프트에 넣을 수 있도록,
+ * 마지막으로 요약한 메시지 이후의 메시지만 골라 기존 요약에 점진적으로 반영
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationSummaryService {
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final MessageRepository messageRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final UserRepository userRepository;
+    private final OpenAIClient openAIClient;
+    private final ChatContextEncoder chatContextEncoder;
+
+    // 프롬프트에 원문 그대로 넣는 최근 메시지 수
+    private static final int RECENT_WINDOW = 20;
+    // 이 개수 이상 쌓였을 때만 요약을 갱신 (매 호출마다 LLM 요약 방지)
+    private static final int MIN_FOLD_BATCH = 20;
+    // 한 번의 요약 호출에 넣는 최대 메시지 수 (요청당 요약 호출은 최대 한 번)
+    private static final int MAX_FOLD_BATCH = 100;
+
+    private static final String SUMMARY_PROMPT = """
+        당신은 대화 요약 전문가입니다. "나"의 관점에서 상대와의 대화를 누적 요약합니다.
+
+        기존 요약과 새로 추가된 대화를 합쳐 갱신된 요약을 작성해주세요.
+        - 관계의 성격, 말투(반말/존댓말), 자주 나온 주제, 중요한 사건과 약속, 감정 변화를 유지
+        - 오래된 세부 내용은 압축하고 최근 변화는 구체적으로
+        - 15문장 이내의 한국어 평문으로만 작성 (JSON/마크다운 금지)
+        """;
+
+    /**
+     * 요약 + 최근 메시지 컨텍스트 조회
+     * 요약 뒤로 밀린 메시지가 충분히 쌓였으면 요약을 먼저 갱신
+     */
+    public ConversationContext getContext(Long chatRoomId, Long userId) {
+        ConversationSummary summary = conversationSummaryRepository.findByChatRoomIdAndUserId(chatRoomId, userId)
+                .orElse(null);
+
+        List<Message> latest = new ArrayList<>(messageRepository.findLatestByChatRoomId(
+                chatRoomId, PageRequest.of(0, RECENT_WINDOW + MIN_FOLD_BATCH)));
+        Collections.reverse(latest);
+
+        if (latest.isEmpty()) {
+            return new ConversationContext(summary != null ? summary.getSummary() : null, List.of());
+        }
+
+        // 최근 RECENT_WINDOW 개는 원문으로 유지, 그 이전 메시지만 요약 대상
+        long windowStartId = latest.get(Math.max(0, latest.size() - RECENT_WINDOW)).getId();
+        summary = foldPendingMessages(chatRoomId, userId, summary, windowStartId);
+
+        long watermark = summary != null ? summary.getLastMessageId() : 0L;
+        List<Message> recent = latest.stream()
+                .filter(m -> m.getId() > watermark)
+                .collect(Collectors.toList());
+
+        return new ConversationContext(summary != null ? summary.getSummary() : null, recent);
+    }
+
+    /**
+     * 요약 뒤로 밀린 메시지를 한 번의 호출로 최대 MAX_FOLD_BATCH 개까지 반영
+     * - 첫 요약: 최근 MAX_FOLD_BATCH 개만 반영하고 그보다 오래된 기록은 건너뛰어 긴 기존 대화도 호출 한 번으로 끝냄
+     * - 기존 요약이 있으면: 가장 오래된 미반영 메시지부터 반영하여 요약 실패/차단 중 쌓인 메시지도 빠짐없이 순서대로 반영
+     */
+    private ConversationSummary foldPendingMessages(Long chatRoomId, Long userId, ConversationSummary summary, long windowStartId) {
+        List<Message> foldable;
+        if (summary == null) {
+            foldable = new ArrayList<>(messageRepository.findBeforeCursor(
+                    chatRoomId, windowStartId, PageRequest.of(0, MAX_FOLD_BATCH)));
+            Collections.reverse(foldable);
+        } else {
+            foldable = messageRepository.findAfterCursor(chatRoomId, summary.getLastMessageId(), PageRequest.of(0, MAX_FOLD_BATCH))
+                    .stream()
+                    .filter(m -> m.getId() < windowStartId)
+                    .collect(Collectors.toList());
+        }
+
+        if (foldable.size() < MIN_FOLD_BATCH) {
+            return summary;
+        }
+
+        String updatedText = summarize(summary != null ? summary.getSummary() : null, foldable, userId);
+        if (updatedText == null) {
+            // 요약 실패 - 기존 요약 유지, 다음 호출에서 다시 시도
+            return summary;
+        }
+
+        return saveSummary(chatRoomId, userId, summary, updatedText, foldable);
+    }
+
+    private String summarize(String previousSummary, List<Message> messages, Long userId) {
+        PromptBuilder.Prompt prompt = PromptBuilder.withInstructions(SUMMARY_PROMPT)
+                .section("기존 요약", previousSummary)
+                .section("새 대화", chatContextEncoder.encode(messages, userId, Integer.MAX_VALUE))
+                .build();
+
+        String response = openAIClient.chat(LlmOperation.CONVERSATION_SUMMARY, prompt);
+        if (response == null || response.isBlank()) {
+            log.warn("Failed to update conversation summary");
+            return null;
+        }
+        return response.trim();
+    }
+
+    private ConversationSummary saveSummary(Long chatRoomId, Long userId, ConversationSummary summary,
+                                            String text, List<Message> folded) {
+        Long lastMessageId = folded.get(folded.size() - 1).getId();
+
+        if (summary == null) {
+            summary = ConversationSummary.builder()
+                    .chatRoom(chatRoomRepository.getReferenceById(chatRoomId))
+                    .user(userRepository.getReferenceById(userId))
+                    .build();
+        }
+        summary.setSummary(text);
+        summary.setLastMessageId(lastMessageId);
+        summary.setSummarizedCount(summary.getSummarizedCount() + folded.size());
+
+        try {
+            ConversationSummary saved = conversationSummaryRepository.save(summary);
+            log.info("Conversation summary updated: chatRoom={}, user={}, lastMessageId={}",
+                    chatRoomId, userId, lastMessageId);
+            return saved;
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+            // 동시에 다른 요청이 먼저 생성/갱신한 경우 - 그쪽 결과 사용
+            log.debug("Conversation summary already updated concurrently: chatRoom={}, user={}", chatRoomId, userId);
+            return conversationSummaryRepository.findByChatRoomIdAndUserId(chatRoomId, userId).orElse(summary);
+        }
+    }
+
+    /**
+     * 프롬프트용 대화 컨텍스트: 누적 요약(없으면 null) + 요약 이후 최근 메시지(오래된 순)
+     */
+    public record ConversationContext(String summary, List<Message> recentMessages) {
+        public boolean isEmpty() {
+            return summary == null && recentMessages.isEmpty();
+        }
+    }
+}
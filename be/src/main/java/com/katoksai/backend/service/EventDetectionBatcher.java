@@ -0,0 +1,230 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.AIProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM 이벤트 감지 micro-batching
+ * 요청을 batch-window 동안(또는 batch-max-size 개가 찰 때까지) 모아 한 번의 호출로 분류하고,
+ * 결과를 각 요청의 future 로 나눠 전달
+ * 각 요청은 batch-window + 슬롯 대기 + LLM 호출 시간 안에 결과가 없으면 GENERAL 로 완료
+ * (flush 를 예약하는 공용 TaskScheduler 가 밀리거나 종료되어도 호출한 쪽이 멈추지 않도록)
+ */
+@Component
+@Slf4j
+public class EventDetectionBatcher {
+
+    private static final String BATCH_EVENT_DETECTION_PROMPT = """
+        당신은 메시지 분석 전문가입니다. 번호가 붙은 각 메시지에서 특별한 이벤트가 감지되는지 분석해주세요.
+
+        감지 가능한 이벤트:
+        - WEDDING: 결혼, 청첩장, 웨딩 관련
+        - BIRTHDAY: 생일 관련
+        - FUNERAL: 부고, 장례, 조문 관련
+        - REUNION: 동창회, 모임, 오랜만의 연락
+        - GENERAL: 특별한 이벤트 없음
+
+        분석할 메시지들은 아래 메시지로 "[번호] 내용" 형식으로 주어집니다.
+        메시지마다 독립적으로 판단하고, 모든 번호에 대해 결과를 반환하세요.
+
+        다음 JSON 형식으로 반환해주세요:
+        {
+            "results": [
+                {
+                    "index": 메시지 번호,
+                    "eventType": "이벤트 유형",
+                    "confidence": 0.0~1.0 사이의 확신도,
+                    "keywords": ["감지된 키워드들"],
+                    "context": "이벤트에 대한 추가 컨텍스트"
+                }
+            ]
+        }
+
+        JSON만 반환하고 다른 설명은 하지 마세요.
+        """;
+
+    private final OpenAIClient openAIClient;
+    private final AiJobScheduler aiJobScheduler;
+    private final LlmRetryPolicy llmRetryPolicy;
+    private final LlmMetrics llmMetrics;
+    private final ChatContextEncoder chatContextEncoder;
+    private final StructuredOutputParser structuredOutputParser;
+    private final AsyncTaskExecutor aiExecutor;
+    private final TaskScheduler taskScheduler;
+    private final AIProperties.EventDetection settings;
+    private final DistributionSummary batchSizeSummary;
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private ScheduledFuture<?> flushTask;
+
+    public EventDetectionBatcher(OpenAIClient openAIClient,
+                                 AiJobScheduler aiJobScheduler,
+                                 LlmRetryPolicy llmRetryPolicy,
+                                 LlmMetrics llmMetrics,
+                                 ChatContextEncoder chatContextEncoder,
+                                 StructuredOutputParser structuredOutputParser,
+                                 AsyncTaskExecutor aiExecutor,
+                                 TaskScheduler taskScheduler,
+                                 AIProperties aiProperties,
+                                 MeterRegistry meterRegistry) {
+        this.openAIClient = openAIClient;
+        this.aiJobScheduler = aiJobScheduler;
+        this.llmRetryPolicy = llmRetryPolicy;
+        this.llmMetrics = llmMetrics;
+        this.chatContextEncoder = chatContextEncoder;
+        this.structuredOutputParser = structuredOutputParser;
+        this.aiExecutor = aiExecutor;
+        this.taskScheduler = taskScheduler;
+        this.settings = aiProperties.getEventDetection();
+        this.batchSizeSummary = DistributionSummary.builder("ai.event.batch.size")
+                .description("한 번의 LLM 호출로 분류한 메시지 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 분류 요청 등록 - 배치가 처리되면 결과가 채워짐 (실패 시 GENERAL)
+     */
+    public CompletableFuture<AIService.EventDetectionResult> submit(String messageContent) {
+        AiPriority priority = aiJobScheduler.currentPriority();
+        Duration timeout = settings.getBatchWindow()
+                .plus(aiJobScheduler.maxWait(priority))
+                .plus(llmRetryPolicy.budget());
+        CompletableFuture<AIService.EventDetectionResult> future = new CompletableFuture<AIService.EventDetectionResult>()
+                .completeOnTimeout(fallback("분석 시간 초과"), timeout.toMillis(), TimeUnit.MILLISECONDS);
+        Pending request = new Pending(messageContent, priority, future);
+        List<Pending> ready = null;
+
+        synchronized (lock) {
+            pending.add(request);
+            if (pending.size() >= settings.getBatchMaxSize()) {
+                ready = takePending();
+            } else if (pending.size() == 1) {
+                flushTask = taskScheduler.schedule(this::flushDue, Instant.now().plus(settings.getBatchWindow()));
+            }
+        }
+
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return request.future();
+    }
+
+    private void flushDue() {
+        List<Pending> ready;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = takePending();
+        }
+        dispatch(ready);
+    }
+
+    // lock 안에서 호출
+    private List<Pending> takePending() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        // 배치 안에서 가장 높은 우선순위로 호출 (사용자 요청이 하위 작업과 묶여 밀리지 않도록)
+        AiPriority priority = batch.stream().map(Pending::priority).min(Comparator.naturalOrder()).orElseThrow();
+        aiExecutor.execute(() -> {
+            try {
+                aiJobScheduler.run(priority, () -> classify(batch));
+            } catch (Exception e) {
+                log.error("Event detection batch failed", e);
+            } finally {
+                // 결과를 받지 못한 요청은 기본값으로 완료
+                batch.forEach(request -> request.future().complete(fallback("분석 실패")));
+            }
+        });
+    }
+
+    private void classify(List<Pending> batch) {
+        // 같은 내용의 메시지는 한 번만 분류
+        Map<String, List<Pending>> byContent = new LinkedHashMap<>();
+        for (Pending request : batch) {
+            byContent.computeIfAbsent(request.content(), key -> new ArrayList<>()).add(request);
+        }
+        List<String> contents = new ArrayList<>(byContent.keySet());
+        batchSizeSummary.record(contents.size());
+
+        StringBuilder messages = new StringBuilder();
+        for (int i = 0; i < contents.size(); i++) {
+            if (i > 0) {
+                messages.append('\n');
+            }
+            // 긴 메시지는 앞부분만으로 분류 (메시지 하나가 배치 프롬프트를 키우지 않도록)
+            String content = chatContextEncoder.truncate(contents.get(i), settings.getMessageMaxTokens());
+            messages.append('[').append(i).append("] ").append(content.replace('\n', ' '));
+        }
+        PromptBuilder.Prompt prompt = PromptBuilder.withInstructions(BATCH_EVENT_DETECTION_PROMPT)
+                .section("메시지", messages.toString())
+                .build();
+
+        String response = openAIClient.chat(LlmOperation.EVENT_DETECTION, prompt, BatchResult.class);
+        if (response == null) {
+            llmMetrics.recordFallback(LlmOperation.EVENT_DETECTION, "llm_error");
+            return;
+        }
+
+        BatchResult batchResult = structuredOutputParser.parse(LlmOperation.EVENT_DETECTION, response, BatchResult.class);
+        if (batchResult == null || batchResult.results() == null) {
+            llmMetrics.recordFallback(LlmOperation.EVENT_DETECTION, "parse_error");
+            return;
+        }
+
+        for (IndexedResult indexed : batchResult.results()) {
+            Integer index = indexed.index();
+            if (index == null || index < 0 || index >= contents.size()) {
+                continue;
+            }
+            AIService.EventDetectionResult result = indexed.toResult();
+            byContent.get(contents.get(index)).forEach(request -> request.future().complete(result));
+        }
+
+        long missing = batch.stream().filter(request -> !request.future().isDone()).count();
+        if (missing > 0) {
+            log.warn("Event detection batch returned no result for {} of {} messages", missing, batch.size());
+            llmMetrics.recordFallback(LlmOperation.EVENT_DETECTION, "parse_error");
+        }
+    }
+
+    private static AIService.EventDetectionResult fallback(String context) {
+        return new AIService.EventDetectionResult("GENERAL", 0.0, List.of(), context);
+    }
+
+    // 배치 응답 형식 (structured output schema 로도 사용)
+    record BatchResult(List<IndexedResult> results) {}
+
+    record IndexedResult(Integer index, String eventType, Double confidence, List<String> keywords, String context) {
+        AIService.EventDetectionResult toResult() {
+            return new AIService.EventDetectionResult(eventType, confidence, keywords, context);
+        }
+    }
+
+    private record Pending(String content, AiPriority priority, CompletableFuture<AIService.EventDetectionResult> future) {}
+}
@@ -0,0 +1,174 @@
+package com.katoksai.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katoksai.backend.config.AIProperties;
+import com.katoksai.backend.entity.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 키워드 기반 이벤트 감지기
+ * 이벤트/답장 키워드를 하나의 오토마톤으로 묶어 메시지를 한 번만 훑어서 분류
+ * 키워드는 설정(ai.event-detection)에서 읽고, 외부 파일이 지정되면 변경 시 자동으로 다시 로드
+ */
+@Component
+@Slf4j
+public class EventKeywordDetector {
+
+    static final String REPLY_CATEGORY = "REPLY";
+    static final String NEGATION_CATEGORY = "NEGATION";
+
+    // 여러 이벤트 키워드가 함께 나오면 이 순서로 우선
+    static final List<Message.EventType> EVENT_PRIORITY = List.of(
+            Message.EventType.WEDDING,
+            Message.EventType.BIRTHDAY,
+            Message.EventType.FUNERAL,
+            Message.EventType.REUNION
+    );
+
+    private final AIProperties.EventDetection properties;
+    private final ObjectMapper objectMapper;
+
+    private volatile KeywordAutomaton<String> automaton;
+    private volatile long keywordsFileModifiedAt = -1L;
+    private final AtomicLong lastReloadCheckAt = new AtomicLong();
+
+    public EventKeywordDetector(AIProperties aiProperties, ObjectMapper objectMapper) {
+        this.properties = aiProperties.getEventDetection();
+        this.objectMapper = objectMapper;
+        this.automaton = buildAutomaton(readKeywordsFile());
+        this.lastReloadCheckAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * 메시지를 분류: 매칭된 모든 키워드(위치 포함)와 최종 이벤트 유형
+     * 답장 키워드가 있으면 이벤트 유형은 null
+     */
+    public Detection detect(String content) {
+        reloadIfChanged();
+
+        List<KeywordAutomaton.Match<String>> matches = automaton.findAll(content);
+
+        boolean replyCue = false;
+        boolean negationCue = false;
+        Set<String> matchedCategories = new LinkedHashSet<>();
+        for (KeywordAutomaton.Match<String> match : matches) {
+            if (REPLY_CATEGORY.equals(match.category())) {
+                replyCue = true;
+            } else if (NEGATION_CATEGORY.equals(match.category())) {
+                negationCue = true;
+            } else {
+                matchedCategories.add(match.category());
+            }
+        }
+
+        Message.EventType eventType = null;
+        if (!replyCue) {
+            eventType = EVENT_PRIORITY.stream()
+                    .filter(type -> matchedCategories.contains(type.name()))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        return new Detection(eventType, replyCue, negationCue, matches);
+    }
+
+    private void reloadIfChanged() {
+        if (properties.getKeywordsFile() == null || properties.getKeywordsFile().isBlank()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long lastCheck = lastReloadCheckAt.get();
+        if (now - lastCheck < properties.getReloadInterval().toMillis()
+                || !lastReloadCheckAt.compareAndSet(lastCheck, now)) {
+            return;
+        }
+
+        Path path = Path.of(properties.getKeywordsFile());
+        try {
+            long modifiedAt = Files.getLastModifiedTime(path).toMillis();
+            if (modifiedAt == keywordsFileModifiedAt) {
+                return;
+            }
+            KeywordsFile keywordsFile = objectMapper.readValue(path.toFile(), KeywordsFile.class);
+            automaton = buildAutomaton(keywordsFile);
+            keywordsFileModifiedAt = modifiedAt;
+            log.info("Event keywords reloaded from {}", path);
+        } catch (IOException e) {
+            // 수정 중이거나 잘못된 파일 - 마지막으로 읽은 키워드를 유지하고 다음 주기에 다시 시도
+            log.warn("Failed to reload event keywords file {}, keeping previous keywords: {}", path, e.getMessage());
+        }
+    }
+
+    private KeywordsFile readKeywordsFile() {
+        if (properties.getKeywordsFile() == null || properties.getKeywordsFile().isBlank()) {
+            return null;
+        }
+
+        Path path = Path.of(properties.getKeywordsFile());
+        try {
+            long modifiedAt = Files.getLastModifiedTime(path).toMillis();
+            KeywordsFile keywordsFile = objectMapper.readValue(path.toFile(), KeywordsFile.class);
+            keywordsFileModifiedAt = modifiedAt;
+            return keywordsFile;
+        } catch (IOException e) {
+            log.warn("Failed to read event keywords file {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private KeywordAutomaton<String> buildAutomaton(KeywordsFile extra) {
+        Map<String, List<String>> keywords = new HashMap<>();
+        properties.getKeywords().forEach((type, words) ->
+                keywords.computeIfAbsent(type.name(), k -> new ArrayList<>()).addAll(words));
+        keywords.computeIfAbsent(REPLY_CATEGORY, k -> new ArrayList<>()).addAll(properties.getReplyKeywords());
+        keywords.computeIfAbsent(NEGATION_CATEGORY, k -> new ArrayList<>()).addAll(properties.getNegationKeywords());
+
+        // 외부 파일의 키워드는 설정 키워드에 추가
+        if (extra != null) {
+            if (extra.keywords() != null) {
+                extra.keywords().forEach((type, words) ->
+                        keywords.computeIfAbsent(type.name(), k -> new ArrayList<>()).addAll(words));
+            }
+            if (extra.replyKeywords() != null) {
+                keywords.get(REPLY_CATEGORY).addAll(extra.replyKeywords());
+            }
+            if (extra.negationKeywords() != null) {
+                keywords.get(NEGATION_CATEGORY).addAll(extra.negationKeywords());
+            }
+        }
+
+        log.info("Event keyword automaton built: {}", keywords.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue().size())
+                .toList());
+        return new KeywordAutomaton<>(keywords);
+    }
+
+    private record KeywordsFile(
+            Map<Message.EventType, List<String>> keywords,
+            List<String> replyKeywords,
+            List<String> negationKeywords
+    ) {}
+
+    /**
+     * 감지 결과: 이벤트 유형(없으면 null), 답장/부정 키워드 포함 여부, 매칭된 키워드 목록
+     */
+    public record Detection(
+            Message.EventType eventType,
+            boolean replyCue,
+            boolean negationCue,
+            List<KeywordAutomaton.Match<String>> matches
+    ) {}
+}
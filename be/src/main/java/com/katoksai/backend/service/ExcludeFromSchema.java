@@ -0,0 +1,15 @@
+package com.katoksai.backend.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * structured output schema 에서 제외할 응답 DTO 필드
+ * LLM 이 채우지 않고 서버에서만 설정하는 값 (응답에 없으면 null 로 변환됨)
+ */
+@Target(ElementType.RECORD_COMPONENT)
+@Retention(RetentionPolicy.RUNTIME)
+@interface ExcludeFromSchema {
+}
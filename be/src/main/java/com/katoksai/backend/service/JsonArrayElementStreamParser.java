@@ -0,0 +1,96 @@
+package com.katoksai.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스트리밍으로 들어오는 JSON 텍스트에서 지정한 배열 필드의 원소(객체)가 완성되는 즉시 잘라내는 파서
+ * 예: {"replies": [{...}, {...}]} 에서 각 {...} 를 순서대로 반환
+ * 마크다운 코드 블록 등 배열 앞의 텍스트는 무시
+ */
+public class JsonArrayElementStreamParser {
+
+    private final String fieldKey;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int position = 0;
+    private boolean inArray = false;
+    private boolean finished = false;
+    private boolean inString = false;
+    private boolean escaped = false;
+    private int depth = 0;
+    private int elementStart = -1;
+
+    public JsonArrayElementStreamParser(String fieldName) {
+        this.fieldKey = "\"" + fieldName + "\"";
+    }
+
+    /**
+     * 새 텍스트 조각을 추가하고, 이번에 완성된 배열 원소 JSON 문자열 목록을 반환
+     */
+    public List<String> feed(String chunk) {
+        List<String> completed = new ArrayList<>();
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return completed;
+        }
+        buffer.append(chunk);
+
+        if (!inArray && !findArrayStart()) {
+            return completed;
+        }
+
+        while (position < buffer.length()) {
+            char ch = buffer.charAt(position);
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (ch == '\\') {
+                    escaped = true;
+                } else if (ch == '"') {
+                    inString = false;
+                }
+            } else if (ch == '"') {
+                inString = true;
+            } else if (ch == '{' || ch == '[') {
+                if (depth == 0) {
+                    elementStart = position;
+                }
+                depth++;
+            } else if (ch == '}' || ch == ']') {
+                if (depth == 0) {
+                    // 배열 종료
+                    finished = true;
+                    position++;
+                    break;
+                }
+                depth--;
+                if (depth == 0 && elementStart >= 0) {
+                    completed.add(buffer.substring(elementStart, position + 1));
+                    elementStart = -1;
+                }
+            }
+            position++;
+        }
+
+        return completed;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private boolean findArrayStart() {
+        int keyIndex = buffer.indexOf(fieldKey);
+        if (keyIndex < 0) {
+            return false;
+        }
+        int arrayStart = buffer.indexOf("[", keyIndex + fieldKey.length());
+        if (arrayStart < 0) {
+            return false;
+        }
+        inArray = true;
+        position = arrayStart + 1;
+        return true;
+    }
+}
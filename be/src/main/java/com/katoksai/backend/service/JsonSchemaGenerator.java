@@ -0,0 +1,75 @@
+package com.katoksai.backend.service;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 응답 DTO(record)에서 OpenAI structured output 용 JSON schema 생성
+ * strict 모드 규칙에 맞춰 모든 필드를 required 로, additionalProperties 는 false 로 지정
+ */
+final class JsonSchemaGenerator {
+
+    private static final Map<Class<?>, Map<String, Object>> CACHE = new ConcurrentHashMap<>();
+
+    private JsonSchemaGenerator() {
+    }
+
+    static Map<String, Object> generate(Class<?> recordType) {
+        return CACHE.computeIfAbsent(recordType, JsonSchemaGenerator::objectSchema);
+    }
+
+    private static Map<String, Object> objectSchema(Class<?> recordType) {
+        if (!recordType.isRecord()) {
+            throw new IllegalArgumentException("Structured output type must be a record: " + recordType.getName());
+        }
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (RecordComponent component : recordType.getRecordComponents()) {
+            if (component.isAnnotationPresent(ExcludeFromSchema.class)) {
+                continue;
+            }
+            properties.put(component.getName(), schemaOf(component.getGenericType()));
+        }
+
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", "object");
+        schema.put("properties", properties);
+        schema.put("required", List.copyOf(properties.keySet()));
+        schema.put("additionalProperties", false);
+        return schema;
+    }
+
+    private static Map<String, Object> schemaOf(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+            return Map.of("type", "array", "items", schemaOf(parameterized.getActualTypeArguments()[0]));
+        }
+        if (!(type instanceof Class<?> clazz)) {
+            throw new IllegalArgumentException("Unsupported structured output field type: " + type);
+        }
+        if (clazz == String.class) {
+            return Map.of("type", "string");
+        }
+        if (clazz == Integer.class || clazz == int.class || clazz == Long.class || clazz == long.class) {
+            return Map.of("type", "integer");
+        }
+        if (clazz == Double.class || clazz == double.class || clazz == Float.class || clazz == float.class) {
+            return Map.of("type", "number");
+        }
+        if (clazz == Boolean.class || clazz == boolean.class) {
+            return Map.of("type", "boolean");
+        }
+        if (clazz.isEnum()) {
+            List<String> values = Arrays.stream(clazz.getEnumConstants()).map(Object::toString).toList();
+            return Map.of("type", "string", "enum", values);
+        }
+        if (clazz.isRecord()) {
+            return objectSchema(clazz);
+        }
+        throw new IllegalArgumentException("Unsupported structured output field type: " + clazz.getName());
+    }
+}
@@ -0,0 +1,115 @@
+package com.katoksai.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick 다중 키워드 매칭 오토마톤
+ * 키워드 개수와 무관하게 본문을 한 번만 훑어서 모든 키워드 출현 위치를 찾음 (대소문자 무시)
+ * 생성 후에는 불변이므로 여러 스레드에서 동시에 사용 가능
+ *
+ * @param <T> 키워드에 붙는 분류 값 (예: 이벤트 유형)
+ */
+public class KeywordAutomaton<T> {
+
+    private final Node<T> root = new Node<>();
+
+    public KeywordAutomaton(Map<T, ? extends Collection<String>> keywordsByCategory) {
+        keywordsByCategory.forEach((category, keywords) -> {
+            for (String keyword : keywords) {
+                if (keyword != null && !keyword.isBlank()) {
+                    insert(normalize(keyword.trim()), category);
+                }
+            }
+        });
+        buildFailureLinks();
+    }
+
+    /**
+     * 본문에서 모든 키워드 매칭을 출현 순서대로 반환
+     */
+    public List<Match<T>> findAll(String text) {
+        List<Match<T>> matches = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return matches;
+        }
+
+        String normalized = normalize(text);
+        Node<T> node = root;
+        for (int i = 0; i < normalized.length(); i++) {
+            char ch = normalized.charAt(i);
+            while (node != root && !node.children.containsKey(ch)) {
+                node = node.failure;
+            }
+            node = node.children.getOrDefault(ch, root);
+
+            for (Output<T> output : node.outputs) {
+                int start = i - output.keyword().length() + 1;
+                matches.add(new Match<>(text.substring(start, i + 1), output.category(), start, i + 1));
+            }
+        }
+        return matches;
+    }
+
+    private void insert(String keyword, T category) {
+        Node<T> node = root;
+        for (int i = 0; i < keyword.length(); i++) {
+            node = node.children.computeIfAbsent(keyword.charAt(i), c -> new Node<>());
+        }
+        node.outputs.add(new Output<>(keyword, category));
+    }
+
+    private void buildFailureLinks() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        root.failure = root;
+        for (Node<T> child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node<T> current = queue.poll();
+            for (Map.Entry<Character, Node<T>> entry : current.children.entrySet()) {
+                char ch = entry.getKey();
+                Node<T> child = entry.getValue();
+
+                Node<T> fallback = current.failure;
+                while (fallback != root && !fallback.children.containsKey(ch)) {
+                    fallback = fallback.failure;
+                }
+                Node<T> target = fallback.children.get(ch);
+                child.failure = (target != null && target != child) ? target : root;
+                // 접미사로 끝나는 키워드도 함께 출력
+                child.outputs.addAll(child.failure.outputs);
+                queue.add(child);
+            }
+        }
+    }
+
+    // 길이가 바뀌지 않는 소문자 변환만 사용해 원문 위치를 유지
+    private static String normalize(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        private final List<Output<T>> outputs = new ArrayList<>();
+        private Node<T> failure;
+    }
+
+    private record Output<T>(String keyword, T category) {}
+
+    /**
+     * 매칭 결과: 원문 기준 키워드, 분류, 시작(포함)/끝(제외) 위치
+     */
+    public record Match<T>(String keyword, T category, int start, int end) {}
+}
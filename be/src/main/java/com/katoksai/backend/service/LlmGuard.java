@@ -0,0 +1,339 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.AIProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LLM 호출 보호 (용도별 bulkhead + circuit breaker)
+ * - 용도별 동시 호출 수를 제한하고, 초과분은 제한된 대기열에서 queueTimeout 까지만 대기
+ * - 최근 호출 실패율이 높으면 openDuration 동안 호출을 차단하여 느린 API 에 요청이 쌓이지 않게 함
+ * 메트릭: ai.llm.circuit.state (0=closed, 1=half_open, 2=open), ai.llm.bulkhead.in_flight,
+ *        ai.llm.bulkhead.queued, ai.llm.rejected (reason=circuit_open|bulkhead_full|queue_timeout)
+ */
+@Component
+@Slf4j
+public class LlmGuard {
+
+    private final AIProperties.LlmGuard settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<LlmOperation, Bulkhead> bulkheads = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, CircuitBreaker> breakers = new EnumMap<>(LlmOperation.class);
+
+    public LlmGuard(AIProperties aiProperties, MeterRegistry meterRegistry) {
+        this.settings = aiProperties.getLlmGuard();
+        this.meterRegistry = meterRegistry;
+
+        for (LlmOperation operation : LlmOperation.values()) {
+            int maxConcurrent = settings.getMaxConcurrentPerOperation().getOrDefault(operation, settings.getMaxConcurrent());
+            Bulkhead bulkhead = new Bulkhead(maxConcurrent);
+            CircuitBreaker breaker = new CircuitBreaker(operation);
+            bulkheads.put(operation, bulkhead);
+            breakers.put(operation, breaker);
+
+            Gauge.builder("ai.llm.bulkhead.in_flight", bulkhead, Bulkhead::inFlight)
+                    .tag("operation", operation.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("ai.llm.bulkhead.queued", bulkhead, b -> b.queued.get())
+                    .tag("operation", operation.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("ai.llm.circuit.state", breaker, b -> b.state().ordinal())
+                    .tag("operation", operation.getTag())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 호출 가능 여부 (차단 중이면 프롬프트 준비 없이 바로 기본 응답으로)
+     */
+    public boolean isCallPermitted(LlmOperation operation) {
+        return breakers.get(operation).isCallPermitted(System.nanoTime());
+    }
+
+    public State state(LlmOperation operation) {
+        return breakers.get(operation).state();
+    }
+
+    /**
+     * 호출 권한 획득 - 거절되면 null (호출하지 말고 기본 응답 사용)
+     * 획득한 Permit 은 반드시 release 해야 함
+     */
+    public Permit acquire(LlmOperation operation) {
+        CircuitBreaker breaker = breakers.get(operation);
+        long generation = breaker.tryAcquire(System.nanoTime());
+        if (generation < 0) {
+            reject(operation, "circuit_open");
+            return null;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(operation);
+        String rejection = bulkhead.acquire();
+        if (rejection != null) {
+            // 호출하지 않았으므로 breaker 결과에는 반영하지 않음
+            breaker.onIgnored(generation);
+            reject(operation, rejection);
+            return null;
+        }
+        return new Permit(bulkhead, breaker, generation);
+    }
+
+    /**
+     * hedge 요청용 추가 권한 - 대기 없이 bulkhead 에 여유가 있을 때만 획득, 없으면 null
+     * 같은 호출의 중복 요청이므로 breaker 에는 반영하지 않음 (슬롯/breaker 는 원 요청의 Permit 이 담당)
+     */
+    public Permit tryAcquireHedge(LlmOperation operation) {
+        Bulkhead bulkhead = bulkheads.get(operation);
+        return bulkhead.permits.tryAcquire() ? new Permit(bulkhead, null, -1) : null;
+    }
+
+    private void reject(LlmOperation operation, String reason) {
+        Counter.builder("ai.llm.rejected")
+                .description("bulkhead/circuit breaker 로 거절된 LLM 호출 수")
+                .tag("operation", operation.getTag())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.debug("LLM call rejected for {}: {}", operation, reason);
+    }
+
+    /**
+     * 서버 측 장애로 볼 수 있는 실패만 breaker 에 반영 (타임아웃, 연결 실패, 5xx, 429)
+     */
+    static boolean isServiceFailure(Throwable error) {
+        Throwable cause = Exceptions.unwrap(error);
+        if (cause instanceof TimeoutException || cause instanceof WebClientRequestException) {
+            return true;
+        }
+        if (cause instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError()
+                    || responseException.getStatusCode().value() == 429;
+        }
+        return false;
+    }
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    public static final class Permit {
+        private final Bulkhead bulkhead;
+        private final CircuitBreaker breaker;
+        // 획득 시점의 breaker 상태 세대
+        private final long generation;
+        private boolean released;
+
+        private Permit(Bulkhead bulkhead, CircuitBreaker breaker, long generation) {
+            this.bulkhead = bulkhead;
+            this.breaker = breaker;
+            this.generation = generation;
+        }
+
+        /**
+         * 호출하지 않고 반납 (호출 슬롯을 받지 못한 경우 등) - breaker 결과에는 반영하지 않음
+         */
+        public synchronized void cancel() {
+            if (released) {
+                return;
+            }
+            released = true;
+            bulkhead.release();
+            if (breaker != null) {
+                breaker.onIgnored(generation);
+            }
+        }
+
+        /**
+         * @param error 호출 실패 원인 (성공이면 null)
+         */
+        public synchronized void release(Throwable error) {
+            if (released) {
+                return;
+            }
+            released = true;
+            bulkhead.release();
+            if (breaker == null) {
+                return;
+            }
+            if (error != null && isServiceFailure(error)) {
+                breaker.onFailure(generation);
+            } else {
+                breaker.onSuccess(generation);
+            }
+        }
+    }
+
+    private final class Bulkhead {
+        private final int maxConcurrent;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private Bulkhead(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+
+        // 획득 성공 시 null, 실패 시 거절 사유
+        private String acquire() {
+            if (permits.tryAcquire()) {
+                return null;
+            }
+            if (queued.incrementAndGet() > settings.getMaxQueue()) {
+                queued.decrementAndGet();
+                return "bulkhead_full";
+            }
+            try {
+                return permits.tryAcquire(settings.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        ? null
+                        : "queue_timeout";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "queue_timeout";
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        private void release() {
+            permits.release();
+        }
+
+        private int inFlight() {
+            return maxConcurrent - permits.availablePermits();
+        }
+    }
+
+    /**
+     * 최근 windowSize 건의 성공/실패를 기록하는 count 기반 circuit breaker
+     * 상태가 바뀔 때마다 세대(generation)가 증가하며, 이전 세대에 시작된 호출의 결과는 무시
+     * (차단 전에 시작된 느린 호출이 half-open 집계를 흐트러뜨리거나 회로를 닫지 않도록)
+     */
+    private final class CircuitBreaker {
+        private final LlmOperation operation;
+        private final boolean[] window = new boolean[settings.getWindowSize()];
+        private int index;
+        private int recorded;
+        private int failures;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private int halfOpenInFlight;
+        private int halfOpenSuccesses;
+        private long generation;
+
+        private CircuitBreaker(LlmOperation operation) {
+            this.operation = operation;
+        }
+
+        private synchronized State state() {
+            return state;
+        }
+
+        private synchronized boolean isCallPermitted(long now) {
+            return state != State.OPEN || openElapsed(now);
+        }
+
+        // 허용되면 현재 세대, 차단되면 -1
+        private synchronized long tryAcquire(long now) {
+            if (state == State.OPEN) {
+                if (!openElapsed(now)) {
+                    return -1;
+                }
+                transition(State.HALF_OPEN);
+                halfOpenInFlight = 0;
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenInFlight >= settings.getHalfOpenCalls()) {
+                    return -1;
+                }
+                halfOpenInFlight++;
+            }
+            return generation;
+        }
+
+        private synchronized void onSuccess(long callGeneration) {
+            if (callGeneration != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+                if (++halfOpenSuccesses >= settings.getHalfOpenCalls()) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            record(false);
+        }
+
+        private synchronized void onFailure(long callGeneration) {
+            if (callGeneration != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                open();
+                return;
+            }
+            record(true);
+            if (recorded >= settings.getMinCalls()
+                    && (double) failures / recorded >= settings.getFailureRateThreshold()) {
+                open();
+            }
+        }
+
+        private synchronized void onIgnored(long callGeneration) {
+            if (callGeneration == generation && state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+            }
+        }
+
+        private void record(boolean failure) {
+            if (recorded == window.length) {
+                if (window[index]) {
+                    failures--;
+                }
+            } else {
+                recorded++;
+            }
+            window[index] = failure;
+            if (failure) {
+                failures++;
+            }
+            index = (index + 1) % window.length;
+        }
+
+        private void resetWindow() {
+            index = 0;
+            recorded = 0;
+            failures = 0;
+        }
+
+        private void open() {
+            openedAt = System.nanoTime();
+            resetWindow();
+            transition(State.OPEN);
+        }
+
+        private boolean openElapsed(long now) {
+            return now - openedAt >= settings.getOpenDuration().toNanos();
+        }
+
+        private void transition(State next) {
+            if (state != next) {
+                log.warn("LLM circuit for {} changed {} -> {}", operation, state, next);
+                state = next;
+                generation++;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.OpenAIConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LLM hedged request 정책 (꼬리 지연 단축)
+ * - 용도별 최근 응답 시간 중 percentile 값까지 응답이 없으면 같은 요청을 한 번 더 보냄
+ * - 요청(재시도 포함 호출 1건)마다 max-rate 만큼 hedge 예산이 쌓이고 hedge 1회에 1만큼 사용하여 추가 호출 비율을 제한
+ * - hedge 도 용도별 bulkhead 권한을 하나 사용하며, 여유가 없으면 보내지 않음
+ * - 응답 시간 표본은 첫 요청 기준: hedge 가 이겨 첫 요청이 취소되면 취소 시점까지의 시간(hedge 대기 이상)을 기록
+ *   (느린 표본이 빠지면 percentile 이 계속 낮아져 hedge 가 점점 늘어나므로)
+ * 메트릭: ai.llm.hedges (operation, outcome=fired|won|budget_exhausted|bulkhead_full)
+ */
+@Component
+public class LlmHedgePolicy {
+
+    // 예산은 1/1000 단위 정수로 관리
+    private static final long UNIT = 1_000;
+
+    private final OpenAIConfig.Hedge settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<LlmOperation, LatencyWindow> windows = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, AtomicLong> budgets = new EnumMap<>(LlmOperation.class);
+
+    public LlmHedgePolicy(OpenAIConfig openAIConfig, MeterRegistry meterRegistry) {
+        this.settings = openAIConfig.getHedge();
+        this.meterRegistry = meterRegistry;
+        for (LlmOperation operation : LlmOperation.values()) {
+            windows.put(operation, new LatencyWindow(settings.getWindowSize()));
+            budgets.put(operation, new AtomicLong());
+        }
+    }
+
+    /**
+     * 요청 1건 시작 - hedge 예산 적립 (재시도마다 쌓이지 않도록 시도가 아닌 요청당 한 번만 호출)
+     */
+    public void onRequest(LlmOperation operation) {
+        if (!isEnabled(operation)) {
+            return;
+        }
+        long credit = Math.round(settings.getMaxRate() * UNIT);
+        long cap = settings.getMaxBurst() * UNIT;
+        budgets.get(operation).accumulateAndGet(credit, (current, add) -> Math.min(cap, current + add));
+    }
+
+    /**
+     * 이번 시도의 hedge 대기 시간 - hedge 하지 않으면 null
+     */
+    public Duration hedgeDelay(LlmOperation operation) {
+        if (!isEnabled(operation)) {
+            return null;
+        }
+        Duration percentile = windows.get(operation).percentile(settings.getPercentile(), settings.getMinSamples());
+        if (percentile == null) {
+            return null;
+        }
+        return percentile.compareTo(settings.getMinDelay()) < 0 ? settings.getMinDelay() : percentile;
+    }
+
+    /**
+     * hedge 요청 발사 여부 - 예산이 남아 있으면 1만큼 사용
+     */
+    public boolean tryHedge(LlmOperation operation) {
+        AtomicLong budget = budgets.get(operation);
+        while (true) {
+            long current = budget.get();
+            if (current < UNIT) {
+                count(operation, "budget_exhausted");
+                return false;
+            }
+            if (budget.compareAndSet(current, current - UNIT)) {
+                count(operation, "fired");
+                return true;
+            }
+        }
+    }
+
+    public void recordBulkheadFull(LlmOperation operation) {
+        count(operation, "bulkhead_full");
+    }
+
+    public void recordHedgeWon(LlmOperation operation) {
+        count(operation, "won");
+    }
+
+    public void recordLatency(LlmOperation operation, Duration latency) {
+        if (isEnabled(operation)) {
+            windows.get(operation).add(latency.toNanos());
+        }
+    }
+
+    private boolean isEnabled(LlmOperation operation) {
+        return settings.isEnabled() && settings.getOperations().contains(operation);
+    }
+
+    private void count(LlmOperation operation, String outcome) {
+        Counter.builder("ai.llm.hedges")
+                .description("hedged LLM 요청 수")
+                .tag("operation", operation.getTag())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 최근 성공 응답 시간 ring buffer
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int index;
+        private int size;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[Math.max(1, capacity)];
+        }
+
+        private synchronized void add(long nanos) {
+            samples[index] = nanos;
+            index = (index + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        private Duration percentile(double percentile, int minSamples) {
+            long[] sorted;
+            synchronized (this) {
+                if (size < minSamples) {
+                    return null;
+                }
+                sorted = Arrays.copyOf(samples, size);
+            }
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+            return Duration.ofNanos(sorted[Math.max(0, Math.min(sorted.length - 1, rank))]);
+        }
+    }
+}
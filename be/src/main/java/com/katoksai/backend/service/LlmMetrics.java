@@ -0,0 +1,156 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.OpenAIConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * LLM 호출 메트릭 (용량 산정 및 비용 추적용)
+ * - ai.llm.latency: 호출 지연 히스토그램 (operation, model, profile, outcome)
+ * - ai.llm.tokens: 사용 토큰 수 (operation, model, profile, type=prompt|completion|cached)
+ * - ai.llm.errors: 타임아웃/오류 수 (operation, model, profile, reason)
+ * - ai.llm.fallbacks: 기본 응답으로 대체된 수 (operation, reason)
+ * - ai.llm.coalesced: 진행 중인 동일 요청과 합쳐진 호출 수 (operation)
+ * - ai.llm.retries: 일시적 장애로 다시 시도한 횟수 (operation, reason)
+ */
+@Component
+@RequiredArgsConstructor
+public class LlmMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordSuccess(Timer.Sample sample, LlmOperation operation, OpenAIConfig.ResolvedProfile profile, OpenAIClient.Usage usage) {
+        stop(sample, operation, profile, "success");
+        if (usage != null) {
+            tokenCounter(operation, profile, "prompt").increment(usage.promptTokens());
+            tokenCounter(operation, profile, "completion").increment(usage.completionTokens());
+            // prefix 캐시에서 처리된 prompt 토큰 (prompt 토큰에 포함된 값)
+            tokenCounter(operation, profile, "cached").increment(usage.cachedTokens());
+        }
+    }
+
+    public void recordEmpty(Timer.Sample sample, LlmOperation operation, OpenAIConfig.ResolvedProfile profile) {
+        stop(sample, operation, profile, "empty");
+        errorCounter(operation, profile, "empty").increment();
+    }
+
+    public void recordCancelled(Timer.Sample sample, LlmOperation operation, OpenAIConfig.ResolvedProfile profile) {
+        stop(sample, operation, profile, "cancelled");
+    }
+
+    public void recordFailure(Timer.Sample sample, LlmOperation operation, OpenAIConfig.ResolvedProfile profile, Throwable error) {
+        String reason = failureReason(error);
+        stop(sample, operation, profile, "timeout".equals(reason) ? "timeout" : "error");
+        errorCounter(operation, profile, reason).increment();
+    }
+
+    /**
+     * 스트리밍 응답의 첫 토큰까지 걸린 시간
+     */
+    public void recordFirstToken(LlmOperation operation, OpenAIConfig.ResolvedProfile profile, Duration elapsed) {
+        Timer.builder("ai.llm.first_token")
+                .description("스트리밍 응답 첫 토큰 지연")
+                .tag("operation", operation.getTag())
+                .tag("model", profile.model())
+                .tag("profile", profile.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+
+    /**
+     * 동일한 요청이 이미 진행 중이어서 API 호출 없이 결과를 공유받은 횟수
+     */
+    public void recordCoalesced(LlmOperation operation) {
+        Counter.builder("ai.llm.coalesced")
+                .description("진행 중인 동일 요청과 합쳐진 LLM 호출 수")
+                .tag("operation", operation.getTag())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 실패한 호출을 다시 시도한 횟수
+     */
+    public void recordRetry(LlmOperation operation, Throwable error) {
+        Counter.builder("ai.llm.retries")
+                .description("일시적 장애로 재시도한 LLM 호출 수")
+                .tag("operation", operation.getTag())
+                .tag("reason", retryReason(error))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordFallback(LlmOperation operation, String reason) {
+        Counter.builder("ai.llm.fallbacks")
+                .description("LLM 결과 대신 기본 응답을 반환한 횟수")
+                .tag("operation", operation.getTag())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void stop(Timer.Sample sample, LlmOperation operation, OpenAIConfig.ResolvedProfile profile, String outcome) {
+        sample.stop(Timer.builder("ai.llm.latency")
+                .description("LLM 호출 지연")
+                .tag("operation", operation.getTag())
+                .tag("model", profile.model())
+                .tag("profile", profile.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Counter tokenCounter(LlmOperation operation, OpenAIConfig.ResolvedProfile profile, String type) {
+        return Counter.builder("ai.llm.tokens")
+                .description("LLM 사용 토큰 수")
+                .tag("operation", operation.getTag())
+                .tag("model", profile.model())
+                .tag("profile", profile.name())
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private Counter errorCounter(LlmOperation operation, OpenAIConfig.ResolvedProfile profile, String reason) {
+        return Counter.builder("ai.llm.errors")
+                .description("LLM 호출 실패 횟수")
+                .tag("operation", operation.getTag())
+                .tag("model", profile.model())
+                .tag("profile", profile.name())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String retryReason(Throwable error) {
+        // 재시도 사유에서는 rate limit(429) 를 다른 4xx 와 구분
+        if (Exceptions.unwrap(error) instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().value() == 429) {
+            return "http_429";
+        }
+        return failureReason(error);
+    }
+
+    private static String failureReason(Throwable error) {
+        // block() 은 checked 예외(TimeoutException)를 감싸서 던지므로 풀어서 확인
+        Throwable cause = Exceptions.unwrap(error);
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (cause instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is4xxClientError() ? "http_4xx" : "http_5xx";
+        }
+        return "other";
+    }
+}
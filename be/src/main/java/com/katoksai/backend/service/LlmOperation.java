@@ -0,0 +1,19 @@
+package com.katoksai.backend.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * LLM 호출 용도 (메트릭 operation 태그)
+ */
+@Getter
+@RequiredArgsConstructor
+public enum LlmOperation {
+    RELATIONSHIP_ANALYSIS("relationship_analysis"),
+    REPLY_GENERATION("reply_generation"),
+    EVENT_DETECTION("event_detection"),
+    WEDDING_AUTO_REPLY("wedding_auto_reply"),
+    CONVERSATION_SUMMARY("conversation_summary");
+
+    private final String tag;
+}
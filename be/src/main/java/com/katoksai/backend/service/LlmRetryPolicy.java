@@ -0,0 +1,119 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.OpenAIConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LLM 호출 재시도 정책
+ * - 일시적 장애(타임아웃, 연결 실패, 429, 5xx)만 최대 max-attempts 회까지 재시도
+ * - 서버가 Retry-After(또는 retry-after-ms)를 주면 그만큼, 아니면 jitter 를 섞은 지수 backoff 만큼 대기
+ * - 호출 전체가 deadline 을 넘기게 되는 재시도와 circuit 이 열린 뒤의 재시도는 하지 않음
+ * - deadline 은 openai.retry.deadline 과 현재 작업(요청)의 남은 시간 중 짧은 쪽
+ */
+@Component
+@RequiredArgsConstructor
+public class LlmRetryPolicy {
+
+    private static final String RETRY_AFTER_MS = "retry-after-ms";
+
+    private final OpenAIConfig openAIConfig;
+    private final LlmGuard llmGuard;
+    private final AiJobScheduler aiJobScheduler;
+
+    /**
+     * 호출 전체 마감 시각 (System.nanoTime 기준)
+     */
+    public long deadline() {
+        return System.nanoTime() + budget().toNanos();
+    }
+
+    /**
+     * 지금 시작하는 호출에 쓸 수 있는 전체 시간
+     */
+    public Duration budget() {
+        Duration deadline = openAIConfig.getRetry().getDeadline();
+        Duration remaining = aiJobScheduler.remainingBudget();
+        return remaining != null && remaining.compareTo(deadline) < 0 ? remaining : deadline;
+    }
+
+    /**
+     * 이번 시도에 쓸 응답 타임아웃 - 마감까지 남은 시간보다 길지 않게
+     */
+    public Duration attemptTimeout(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        return Duration.ofNanos(Math.max(0, Math.min(remaining, Duration.ofMillis(openAIConfig.getTimeout()).toNanos())));
+    }
+
+    /**
+     * @param attempt 방금 실패한 시도 번호 (1부터)
+     * @return 다음 시도 전 대기 시간, 재시도하지 않으면 null
+     */
+    public Duration nextDelay(LlmOperation operation, Throwable error, int attempt, long deadline) {
+        OpenAIConfig.Retry settings = openAIConfig.getRetry();
+        if (attempt >= settings.getMaxAttempts() || !LlmGuard.isServiceFailure(error)) {
+            return null;
+        }
+        if (!llmGuard.isCallPermitted(operation)) {
+            return null;
+        }
+
+        Duration delay = retryAfter(error);
+        if (delay == null) {
+            // equal jitter: 상한의 절반은 보장하고 나머지 절반은 무작위로 분산
+            long cap = Math.min(settings.getMaxBackoff().toMillis(),
+                    settings.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+            long half = Math.max(1, cap / 2);
+            delay = Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+        }
+
+        // 대기 후 남은 시간이 없으면 재시도해도 의미 없음
+        if (System.nanoTime() + delay.toNanos() >= deadline) {
+            return null;
+        }
+        return delay;
+    }
+
+    static Duration retryAfter(Throwable error) {
+        if (!(Exceptions.unwrap(error) instanceof WebClientResponseException responseException)) {
+            return null;
+        }
+        HttpHeaders headers = responseException.getHeaders();
+
+        String millis = headers.getFirst(RETRY_AFTER_MS);
+        if (millis != null) {
+            try {
+                return Duration.ofMillis(Math.max(0, Math.round(Double.parseDouble(millis.trim()))));
+            } catch (NumberFormatException ignored) {
+                // Retry-After 로 확인
+            }
+        }
+
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // HTTP-date 형식
+            try {
+                Instant retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                Duration delay = Duration.between(Instant.now(), retryAt);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
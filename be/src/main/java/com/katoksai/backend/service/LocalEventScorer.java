@@ -0,0 +1,87 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.entity.Message;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JVM 내부에서 계산하는 이벤트 확신도 점수 (0.0 ~ 1.0)
+ * 키워드 매칭 수, 답장/부정 표현, 메시지 길이를 반영
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalEventScorer {
+
+    private static final double SINGLE_KEYWORD_SCORE = 0.7;
+    private static final double EXTRA_KEYWORD_BONUS = 0.1;
+    private static final double MAX_SCORE = 0.95;
+    private static final double REPLY_CUE_PENALTY = 0.4;
+    private static final double NEGATION_CUE_PENALTY = 0.25;
+    private static final double LENGTH_PENALTY = 0.1;
+    private static final int SHORT_MESSAGE_LENGTH = 4;
+    private static final int LONG_MESSAGE_LENGTH = 200;
+
+    private final EventKeywordDetector eventKeywordDetector;
+
+    public Score score(String content) {
+        EventKeywordDetector.Detection detection = eventKeywordDetector.detect(content);
+
+        // 이벤트 유형별로 매칭된 서로 다른 키워드
+        Map<String, Set<String>> keywordsByType = new LinkedHashMap<>();
+        for (KeywordAutomaton.Match<String> match : detection.matches()) {
+            if (!EventKeywordDetector.REPLY_CATEGORY.equals(match.category())
+                    && !EventKeywordDetector.NEGATION_CATEGORY.equals(match.category())) {
+                keywordsByType.computeIfAbsent(match.category(), k -> new LinkedHashSet<>()).add(match.keyword());
+            }
+        }
+
+        if (keywordsByType.isEmpty()) {
+            return new Score(null, 0.0, List.of());
+        }
+
+        // 가장 많은 키워드가 나온 유형, 같으면 기본 우선순위
+        Message.EventType bestType = null;
+        int bestCount = 0;
+        for (Message.EventType type : EventKeywordDetector.EVENT_PRIORITY) {
+            int count = keywordsByType.getOrDefault(type.name(), Set.of()).size();
+            if (count > bestCount) {
+                bestType = type;
+                bestCount = count;
+            }
+        }
+        if (bestType == null) {
+            return new Score(null, 0.0, List.of());
+        }
+
+        double score = Math.min(MAX_SCORE, SINGLE_KEYWORD_SCORE + EXTRA_KEYWORD_BONUS * (bestCount - 1));
+        if (detection.replyCue()) {
+            score -= REPLY_CUE_PENALTY;
+        }
+        if (detection.negationCue()) {
+            score -= NEGATION_CUE_PENALTY;
+        }
+        int length = content.codePointCount(0, content.length());
+        if (length <= SHORT_MESSAGE_LENGTH || length > LONG_MESSAGE_LENGTH) {
+            score -= LENGTH_PENALTY;
+        }
+
+        List<String> keywords = keywordsByType.values().stream()
+                .flatMap(Set::stream)
+                .distinct()
+                .toList();
+
+        return new Score(bestType, Math.max(0.0, score), keywords);
+    }
+
+    /**
+     * eventType: 가장 유력한 이벤트 유형 (키워드가 없으면 null)
+     * eventScore: 이벤트일 확률 추정치
+     */
+    public record Score(Message.EventType eventType, double eventScore, List<String> keywords) {}
+}
@@ -1,18 +1,18 @@
 package com.katoksai.backend.service;
 
 import com.katoksai.backend.dto.request.SendMessageRequest;
+import com.katoksai.backend.dto.response.MessageCursorResponse;
 import com.katoksai.backend.dto.response.MessageResponse;
 import com.katoksai.backend.entity.ChatRoom;
+import com.katoksai.backend.entity.ChatRoomMember;
 import com.katoksai.backend.entity.Message;
 import com.katoksai.backend.entity.User;
 import com.katoksai.backend.exception.BusinessException;
 import com.katoksai.backend.exception.ResourceNotFoundException;
-import com.katoksai.backend.entity.UserSettings;
 import com.katoksai.backend.repository.ChatRoomMemberRepository;
 import com.katoksai.backend.repository.ChatRoomRepository;
 import com.katoksai.backend.repository.MessageRepository;
 import com.katoksai.backend.repository.UserRepository;
-import com.katoksai.backend.repository.UserSettingsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -23,7 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,18 +35,14 @@ public class MessageService {
     private final ChatRoomRepository chatRoomRepository;
     private final ChatRoomMemberRepository chatRoomMemberRepository;
     private final UserRepository userRepository;
-    private final UserSettingsRepository userSettingsRepository;
     private final FriendService friendService;
-    private final AIService aiService;
-    private final WebSocketService webSocketService;
+    private final EventKeywordDetector eventKeywordDetector;
+    private final AutoReplyPipeline autoReplyPipeline;
+    private final BroadcastOutboxService broadcastOutboxService;
+    private final UserStyleService userStyleService;
+    private final ReplyPrecomputeService replyPrecomputeService;
 
-    // Event detection patterns
-    private static final Pattern WEDDING_PATTERN = Pattern.compile("결혼|웨딩|청첩장|식장|신랑|신부|혼인", Pattern.CASE_INSENSITIVE);
-    private static final Pattern BIRTHDAY_PATTERN = Pattern.compile("생일|생축|태어난|birthday", Pattern.CASE_INSENSITIVE);
-    private static final Pattern FUNERAL_PATTERN = Pattern.compile("장례|부고|돌아가|상가|조문|빈소", Pattern.CASE_INSENSITIVE);
-    private static final Pattern REUNION_PATTERN = Pattern.compile("동창|모임|오랜만|reunion", Pattern.CASE_INSENSITIVE);
-    // 답장/응답 패턴 (이런 패턴이 포함되면 이벤트 감지 제외)
-    private static final Pattern REPLY_PATTERN = Pattern.compile("축하해|축하드|축하합|감사|고마워|명복|위로|잘됐|좋겠|부럽|갈게|참석|ㅊㅋ", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
 
     @Transactional
     public MessageResponse sendMessage(Long chatRoomId, Long senderId, SendMessageRequest request) {
@@ -90,99 +86,54 @@ public class MessageService {
         // Update intimacy score
         updateIntimacyOnMessage(chatRoom, senderId);
 
+        // 말투 프로필 갱신 (자동 답장은 사용자가 직접 쓴 메시지가 아니므로 제외)
+        if (!Boolean.TRUE.equals(request.getIsAutoReply())) {
+            userStyleService.recordMessage(chatRoom, sender, request.getContent());
+        }
+
         log.info("Message sent in chat room {}: {} by user {}", chatRoomId, savedMessage.getId(), senderId);
 
-        // Note: WebSocket broadcast is handled by the controllers (MessageController, WebSocketController)
+        // WebSocket 브로드캐스트는 outbox 에 기록하고 커밋 후 전송 (롤백된 메시지는 전송되지 않음)
+        MessageResponse response = MessageResponse.from(savedMessage);
+        broadcastOutboxService.record(chatRoomId, response);
 
-        // 결혼 이벤트 감지 시 자동 답장 처리 (1:1 채팅방에서만, 자동 답장이 아닌 경우만)
+        // 결혼 이벤트 감지 시 자동 답장 작업 등록 (1:1 채팅방에서만, 자동 답장이 아닌 경우만)
+        // 실제 답장 생성은 커밋 후 백그라운드에서 처리되므로 전송 요청은 바로 반환됨
         if (eventType == Message.EventType.WEDDING
                 && chatRoom.getType() == ChatRoom.ChatRoomType.DIRECT
                 && !Boolean.TRUE.equals(request.getIsAutoReply())) {
-            processWeddingAutoReply(chatRoom, senderId);
+            enqueueWeddingAutoReply(chatRoom, sender, savedMessage.getId());
+        }
+
+        // 이벤트 감지 시 받는 사람의 답장을 커밋 후 미리 생성 (1:1 채팅방에서만)
+        if (eventDetected && chatRoom.getType() == ChatRoom.ChatRoomType.DIRECT) {
+            findOtherActiveMember(chatRoom, senderId)
+                    .ifPresent(recipient -> replyPrecomputeService.schedule(chatRoomId, recipient.getId(), senderId, eventType));
         }
 
-        return MessageResponse.from(savedMessage);
+        return response;
     }
 
     /**
-     * 결혼 초대 메시지에 대한 자동 답장 처리
-     * 사용자 설정에서 replyMode가 AUTO인 경우에만 자동 답장
+     * 결혼 초대 메시지에 대한 자동 답장 작업 등록
      */
-    private void processWeddingAutoReply(ChatRoom chatRoom, Long senderId) {
+    private void enqueueWeddingAutoReply(ChatRoom chatRoom, User sender, Long triggerMessageId) {
         // 상대방 찾기 (메시지 받는 사람 = 자동 답장을 보낼 사람)
-        chatRoom.getMembers().stream()
-                .filter(m -> !m.getUser().getId().equals(senderId) && m.getLeftAt() == null)
+        findOtherActiveMember(chatRoom, sender.getId())
+                .ifPresent(recipient -> autoReplyPipeline.enqueue(chatRoom, recipient, sender, triggerMessageId));
+    }
+
+    private Optional<User> findOtherActiveMember(ChatRoom chatRoom, Long userId) {
+        return chatRoom.getMembers().stream()
+                .filter(m -> !m.getUser().getId().equals(userId) && m.getLeftAt() == null)
                 .findFirst()
-                .ifPresent(recipientMember -> {
-                    Long recipientId = recipientMember.getUser().getId();
-
-                    try {
-                        // 사용자 설정 확인 - AUTO 모드인 경우에만 자동 답장
-                        UserSettings settings = userSettingsRepository.findByUserId(recipientId).orElse(null);
-                        log.info("User {} settings: replyMode={}", recipientId,
-                                settings != null ? settings.getReplyMode() : "null (no settings)");
-                        if (settings == null || settings.getReplyMode() != UserSettings.ReplyMode.AUTO) {
-                            log.info("User {} has replyMode={}, skipping auto-reply", recipientId,
-                                    settings != null ? settings.getReplyMode() : "null");
-                            return;
-                        }
-
-                        log.info("Processing wedding auto-reply for user {} in chat room {}", recipientId, chatRoom.getId());
-
-                        // AI 서비스로 답장 생성
-                        AIService.WeddingAutoReplyResult result = aiService.generateWeddingAutoReply(
-                                chatRoom.getId(), recipientId, senderId
-                        );
-
-                        if (result != null && result.replyMessage() != null) {
-                            // 자동 답장 메시지 저장
-                            Message autoReply = Message.builder()
-                                    .chatRoom(chatRoom)
-                                    .sender(recipientMember.getUser())
-                                    .content(result.replyMessage())
-                                    .type(Message.MessageType.TEXT)
-                                    .isAutoReply(true)
-                                    .aiInsight(String.format("친밀도: %d점 | %s | %s",
-                                            result.intimacyScore(),
-                                            result.willAttend() ? "참석 예정" : "불참 예정",
-                                            result.attendanceReason()))
-                                    .build();
-
-                            Message savedAutoReply = messageRepository.save(autoReply);
-
-                            // 발신자의 읽지 않은 메시지 수 증가
-                            chatRoomMemberRepository.incrementUnreadCountForOtherMembers(
-                                    chatRoom.getId(), recipientId
-                            );
-
-                            // Broadcast auto-reply via WebSocket
-                            MessageResponse autoReplyResponse = MessageResponse.from(savedAutoReply);
-                            List<Long> autoReplyMemberIds = chatRoom.getMembers().stream()
-                                    .filter(m -> m.getLeftAt() == null)
-                                    .map(m -> m.getUser().getId())
-                                    .collect(Collectors.toList());
-                            webSocketService.sendMessageToRoom(chatRoom.getId(), autoReplyResponse, autoReplyMemberIds);
-
-                            log.info("Wedding auto-reply sent: chatRoom={}, from={}, intimacy={}, willAttend={}",
-                                    chatRoom.getId(), recipientId, result.intimacyScore(), result.willAttend());
-                        }
-                    } catch (Exception e) {
-                        log.error("Failed to process wedding auto-reply: {}", e.getMessage(), e);
-                    }
-                });
+                .map(ChatRoomMember::getUser);
     }
 
     private Message.EventType detectEvent(String content) {
-        // 답장/응답 패턴이 포함된 메시지는 이벤트 감지 제외
+        // 답장/응답 키워드가 포함된 메시지는 이벤트 감지 제외
         // (예: "결혼 축하해!" 같은 축하 메시지는 이벤트로 감지하지 않음)
-        if (REPLY_PATTERN.matcher(content).find()) {
-            return null;
-        }
-        if (WEDDING_PATTERN.matcher(content).find()) return Message.EventType.WEDDING;
-        if (BIRTHDAY_PATTERN.matcher(content).find()) return Message.EventType.BIRTHDAY;
-        if (FUNERAL_PATTERN.matcher(content).find()) return Message.EventType.FUNERAL;
-        if (REUNION_PATTERN.matcher(content).find()) return Message.EventType.REUNION;
-        return null;
+        return eventKeywordDetector.detect(content).eventType();
     }
 
     private String generateAiInsight(Message.EventType eventType, ChatRoom chatRoom, Long senderId) {
@@ -243,6 +194,51 @@ public class MessageService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 커서 기반 메시지 조회 (COUNT 쿼리 없음)
+     * before: 해당 id 이전 메시지를 최신순으로, after: 해당 id 이후 메시지를 오래된순으로, 둘 다 없으면 최신 메시지
+     */
+    public MessageCursorResponse getMessagesByCursor(Long chatRoomId, Long userId, Long before, Long after, int size) {
+        // Check if user is member
+        chatRoomMemberRepository.findByChatRoomIdAndUserId(chatRoomId, userId)
+                .orElseThrow(() -> new BusinessException("채팅방에 참여하지 않은 사용자입니다"));
+
+        if (before != null && after != null) {
+            throw new BusinessException("before와 after는 동시에 사용할 수 없습니다");
+        }
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BusinessException("size는 1 이상 " + MAX_CURSOR_PAGE_SIZE + " 이하여야 합니다");
+        }
+
+        // 한 개 더 조회해서 다음 페이지 존재 여부 판단
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Message> messages;
+        if (before != null) {
+            messages = messageRepository.findBeforeCursor(chatRoomId, before, limit);
+        } else if (after != null) {
+            messages = messageRepository.findAfterCursor(chatRoomId, after, limit);
+        } else {
+            messages = messageRepository.findLatestByChatRoomId(chatRoomId, limit);
+        }
+
+        boolean hasMore = messages.size() > size;
+        if (hasMore) {
+            messages = messages.subList(0, size);
+        }
+
+        Long minId = messages.stream().map(Message::getId).min(Long::compare).orElse(before);
+        Long maxId = messages.stream().map(Message::getId).max(Long::compare).orElse(after);
+
+        return MessageCursorResponse.builder()
+                .messages(messages.stream()
+                        .map(MessageResponse::from)
+                        .collect(Collectors.toList()))
+                .nextBefore(minId)
+                .nextAfter(maxId)
+                .hasMore(hasMore)
+                .build();
+    }
+
     public List<MessageResponse> getAllMessages(Long chatRoomId, Long userId) {
         // Check if user is member
         chatRoomMemberRepository.findByChatRoomIdAndUserId(chatRoomId, userId)
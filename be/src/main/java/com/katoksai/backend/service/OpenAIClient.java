@@ -1,16 +1,33 @@
 package com.katoksai.backend.service;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.katoksai.backend.config.OpenAIConfig;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -19,96 +36,411 @@ public class OpenAIClient {
 
     private final WebClient openAIWebClient;
     private final OpenAIConfig openAIConfig;
+    private final ObjectMapper objectMapper;
+    private final LlmMetrics llmMetrics;
+    private final LlmGuard llmGuard;
+    private final AiJobScheduler aiJobScheduler;
+    private final LlmRetryPolicy llmRetryPolicy;
+    private final LlmHedgePolicy llmHedgePolicy;
+
+    private static final String STREAM_DONE = "[DONE]";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ConcurrentHashMap<InFlightKey, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Send a prompt built by PromptBuilder (static instructions as system, request data as user)
+     */
+    public String chat(LlmOperation operation, PromptBuilder.Prompt prompt) {
+        return chat(operation, prompt.system(), prompt.user());
+    }
+
+    /**
+     * Structured output: constrain the response to the JSON schema derived from responseType
+     * (parse the result with StructuredOutputParser)
+     */
+    public String chat(LlmOperation operation, PromptBuilder.Prompt prompt, Class<?> responseType) {
+        return chat(operation, prompt.system(), prompt.user(), openAIConfig.resolveProfile(operation), responseFormat(responseType));
+    }
 
     /**
      * Send a chat completion request to OpenAI
      */
-    public String chat(String systemPrompt, String userMessage) {
-        return chat(systemPrompt, userMessage, openAIConfig.getModel());
+    public String chat(LlmOperation operation, String systemPrompt, String userMessage) {
+        return chat(operation, systemPrompt, userMessage, openAIConfig.resolveProfile(operation), null);
     }
 
     /**
-     * Send a chat completion request to OpenAI with specific model
+     * Single-flight: identical concurrent requests (same operation, profile and normalized prompt)
+     * share one in-flight completion instead of each calling the API.
+     * A request only joins a call of equal or higher priority; otherwise it calls the API itself
+     * and later requests of its priority join that call instead
      */
-    public String chat(String systemPrompt, String userMessage, String model) {
-        try {
-            ChatRequest request = new ChatRequest(
-                    model,
-                    List.of(
-                            new ChatMessage("system", systemPrompt),
-                            new ChatMessage("user", userMessage)
-                    ),
-                    openAIConfig.getMaxTokens(),
-                    0.7
-            );
-
-            ChatResponse response = openAIWebClient.post()
-                    .uri("/chat/completions")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(ChatResponse.class)
-                    .timeout(Duration.ofMillis(openAIConfig.getTimeout()))
-                    .block();
-
-            if (response != null && response.choices() != null && !response.choices().isEmpty()) {
-                String content = response.choices().get(0).message().content();
-                log.debug("OpenAI response: {}", content);
-                return content;
+    private String chat(LlmOperation operation, String systemPrompt, String userMessage,
+                        OpenAIConfig.ResolvedProfile profile, ResponseFormat responseFormat) {
+        InFlightKey key = new InFlightKey(operation, profile, responseFormat, normalize(systemPrompt), normalize(userMessage));
+        AiPriority priority = aiJobScheduler.currentPriority();
+        InFlightCall call = new InFlightCall(priority, new CompletableFuture<>());
+        while (true) {
+            InFlightCall existing = inFlight.putIfAbsent(key, call);
+            if (existing == null) {
+                break;
             }
+            // AiPriority 는 순서가 앞설수록 높은 우선순위
+            if (existing.priority().compareTo(priority) <= 0) {
+                return join(operation, existing, priority);
+            }
+            if (inFlight.replace(key, existing, call)) {
+                break;
+            }
+        }
 
-            log.warn("Empty response from OpenAI");
-            return null;
-
-        } catch (Exception e) {
-            log.error("Failed to call OpenAI API", e);
-            return null;
+        String result = null;
+        try {
+            result = execute(operation, systemPrompt, userMessage, profile, responseFormat);
+            return result;
+        } finally {
+            inFlight.remove(key, call);
+            call.result().complete(result);
         }
     }
 
     /**
-     * Async chat completion
+     * Wait for the in-flight call, but no longer than this request would have waited for its own call
+     * (slot max-wait of its priority plus its retry budget)
      */
-    public Mono<String> chatAsync(String systemPrompt, String userMessage) {
+    private String join(LlmOperation operation, InFlightCall leader, AiPriority priority) {
+        llmMetrics.recordCoalesced(operation);
+        log.debug("Coalesced {} request into an in-flight {} call", operation, leader.priority());
+        Duration timeout = aiJobScheduler.maxWait(priority).plus(llmRetryPolicy.budget());
+        Duration remaining = aiJobScheduler.remainingBudget();
+        if (remaining != null && remaining.compareTo(timeout) < 0) {
+            timeout = remaining;
+        }
+        try {
+            return leader.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Coalesced {} request timed out after {}ms waiting for the in-flight call",
+                    operation, timeout.toMillis());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private String execute(LlmOperation operation, String systemPrompt, String userMessage,
+                           OpenAIConfig.ResolvedProfile profile, ResponseFormat responseFormat) {
+        // 동시 호출 한도 초과/차단 중이거나 우선순위 슬롯을 받지 못하면 호출하지 않고 null (호출부에서 기본 응답 사용)
+        // 용도별 bulkhead 를 먼저 통과해야 슬롯을 기다림 (bulkhead 대기 중에 전체 슬롯을 점유해 INTERACTIVE 가 밀리지 않도록)
+        LlmGuard.Permit permit = llmGuard.acquire(operation);
+        if (permit == null) {
+            return null;
+        }
+        AiJobScheduler.Slot slot = aiJobScheduler.acquire(aiJobScheduler.currentPriority());
+        if (slot == null) {
+            permit.cancel();
+            return null;
+        }
+
         ChatRequest request = new ChatRequest(
-                openAIConfig.getModel(),
+                profile.model(),
                 List.of(
                         new ChatMessage("system", systemPrompt),
                         new ChatMessage("user", userMessage)
                 ),
-                openAIConfig.getMaxTokens(),
-                0.7
+                profile.maxTokens() > 0 ? profile.maxTokens() : null,
+                profile.temperature(),
+                profile.reasoningEffort(),
+                null,
+                null,
+                responseFormat
         );
 
-        return openAIWebClient.post()
+        // 재시도 사이에도 슬롯/permit 을 유지하고, breaker 에는 최종 결과만 반영
+        long deadline = llmRetryPolicy.deadline();
+        llmHedgePolicy.onRequest(operation);
+        Throwable failure = null;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Timer.Sample sample = llmMetrics.start();
+                try {
+                    ChatResponse response = send(operation, request, deadline);
+
+                    if (response != null && response.choices() != null && !response.choices().isEmpty()) {
+                        llmMetrics.recordSuccess(sample, operation, profile, response.usage());
+                        String content = response.choices().get(0).message().content();
+                        log.debug("OpenAI response: {}", content);
+                        return content;
+                    }
+
+                    llmMetrics.recordEmpty(sample, operation, profile);
+                    log.warn("Empty response from OpenAI");
+                    return null;
+
+                } catch (Exception e) {
+                    failure = e;
+                    llmMetrics.recordFailure(sample, operation, profile, e);
+
+                    Duration delay = llmRetryPolicy.nextDelay(operation, e, attempt, deadline);
+                    if (delay == null) {
+                        log.error("Failed to call OpenAI API", e);
+                        return null;
+                    }
+                    log.warn("OpenAI call for {} failed (attempt {}), retrying in {}ms: {}",
+                            operation, attempt, delay.toMillis(), e.getMessage());
+                    llmMetrics.recordRetry(operation, e);
+                    if (!sleep(delay)) {
+                        return null;
+                    }
+                    failure = null;
+                }
+            }
+        } finally {
+            permit.release(failure);
+            slot.release();
+        }
+    }
+
+    /**
+     * Single attempt, hedged when enabled for the operation: if no response arrives within the
+     * hedge delay, an identical request is sent (only if the operation's bulkhead has a free permit)
+     * and the first to complete wins (the other is cancelled)
+     */
+    private ChatResponse send(LlmOperation operation, ChatRequest request, long deadline) {
+        Mono<ChatResponse> call = Mono.defer(() -> openAIWebClient.post()
                 .uri("/chat/completions")
+                .accept(MediaType.APPLICATION_JSON)
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(ChatResponse.class)
-                .timeout(Duration.ofMillis(openAIConfig.getTimeout()))
-                .map(response -> {
-                    if (response.choices() != null && !response.choices().isEmpty()) {
-                        return response.choices().get(0).message().content();
+                .timeout(llmRetryPolicy.attemptTimeout(deadline)));
+
+        // hedge 지연 기준은 첫 요청 자신의 응답 시간
+        long start = System.nanoTime();
+        Mono<ChatResponse> primary = call.doOnNext(response ->
+                llmHedgePolicy.recordLatency(operation, Duration.ofNanos(System.nanoTime() - start)));
+
+        Duration hedgeDelay = llmHedgePolicy.hedgeDelay(operation);
+        if (hedgeDelay == null) {
+            return primary.block();
+        }
+        // hedge 가 이겨 첫 요청이 취소되면 취소 시점까지의 시간을 (최소 hedge 대기 시간으로) 기록 - 느린 표본이 빠지지 않도록
+        primary = primary.doOnCancel(() -> {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            llmHedgePolicy.recordLatency(operation, elapsed.compareTo(hedgeDelay) < 0 ? hedgeDelay : elapsed);
+        });
+
+        // hedge 요청의 실패/빈 응답은 무시하고 첫 요청 결과를 기다림
+        Mono<HedgedResponse> hedge = Mono.delay(hedgeDelay)
+                .flatMap(tick -> {
+                    LlmGuard.Permit hedgePermit = llmGuard.tryAcquireHedge(operation);
+                    if (hedgePermit == null) {
+                        llmHedgePolicy.recordBulkheadFull(operation);
+                        return Mono.<HedgedResponse>never();
                     }
-                    return null;
-                })
-                .onErrorResume(e -> {
-                    log.error("Failed to call OpenAI API async", e);
-                    return Mono.empty();
+                    if (!llmHedgePolicy.tryHedge(operation)) {
+                        hedgePermit.release(null);
+                        return Mono.<HedgedResponse>never();
+                    }
+                    return call.map(r -> new HedgedResponse(r, true))
+                            .onErrorResume(e -> Mono.never())
+                            .switchIfEmpty(Mono.never())
+                            .doFinally(signal -> hedgePermit.release(null));
                 });
+        HedgedResponse result = Mono.firstWithSignal(primary.map(r -> new HedgedResponse(r, false)), hedge).block();
+        if (result != null && result.hedge()) {
+            llmHedgePolicy.recordHedgeWon(operation);
+        }
+        return result != null ? result.response() : null;
+    }
+
+    private static boolean sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ResponseFormat responseFormat(Class<?> responseType) {
+        // 비활성화 시 schema 없이 요청하고 응답 파싱만 StructuredOutputParser 로 처리
+        if (!openAIConfig.isStructuredOutput()) {
+            return null;
+        }
+        return new ResponseFormat("json_schema",
+                new JsonSchema(responseType.getSimpleName(), true, JsonSchemaGenerator.generate(responseType)));
     }
 
+    private static String normalize(String text) {
+        return text == null ? "" : WHITESPACE.matcher(text.strip()).replaceAll(" ");
+    }
+
+    public Flux<String> chatStream(LlmOperation operation, PromptBuilder.Prompt prompt) {
+        return chatStream(operation, prompt.system(), prompt.user());
+    }
+
+    /**
+     * Streaming chat completion constrained to the JSON schema derived from responseType
+     */
+    public Flux<String> chatStream(LlmOperation operation, PromptBuilder.Prompt prompt, Class<?> responseType) {
+        return chatStream(operation, prompt.system(), prompt.user(), responseFormat(responseType));
+    }
+
+    /**
+     * Streaming chat completion (stream: true)
+     * Emits content deltas as they arrive from the server-sent event stream
+     */
+    public Flux<String> chatStream(LlmOperation operation, String systemPrompt, String userMessage) {
+        return chatStream(operation, systemPrompt, userMessage, null);
+    }
+
+    private Flux<String> chatStream(LlmOperation operation, String systemPrompt, String userMessage, ResponseFormat responseFormat) {
+        OpenAIConfig.ResolvedProfile profile = openAIConfig.resolveProfile(operation);
+        ChatRequest request = new ChatRequest(
+                profile.model(),
+                List.of(
+                        new ChatMessage("system", systemPrompt),
+                        new ChatMessage("user", userMessage)
+                ),
+                profile.maxTokens() > 0 ? profile.maxTokens() : null,
+                profile.temperature(),
+                profile.reasoningEffort(),
+                true,
+                // usage is only reported in the final chunk when requested
+                new StreamOptions(true),
+                responseFormat
+        );
+
+        AiPriority priority = aiJobScheduler.currentPriority();
+
+        return Flux.defer(() -> {
+            LlmGuard.Permit permit = llmGuard.acquire(operation);
+            if (permit == null) {
+                return Flux.<String>empty();
+            }
+            AiJobScheduler.Slot slot = aiJobScheduler.acquire(priority);
+            if (slot == null) {
+                permit.cancel();
+                return Flux.<String>empty();
+            }
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Timer.Sample sample = llmMetrics.start();
+            long startNanos = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean(true);
+            AtomicBoolean received = new AtomicBoolean(false);
+            AtomicReference<Usage> usage = new AtomicReference<>();
+            long deadline = llmRetryPolicy.deadline();
+
+            return openAIWebClient.post()
+                    .uri("/chat/completions")
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                    // 시도마다 첫 chunk 까지의 타임아웃 (마감까지 남은 시간 이내)
+                    .timeout(Mono.defer(() -> Mono.delay(llmRetryPolicy.attemptTimeout(deadline))), event -> Mono.never())
+                    .doOnNext(event -> received.set(true))
+                    // 스트림이 시작되기 전의 실패만 재시도 (이미 받은 내용이 중복 전달되지 않도록)
+                    .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                        Duration delay = received.get() ? null : llmRetryPolicy.nextDelay(
+                                operation, signal.failure(), (int) signal.totalRetries() + 1, deadline);
+                        if (delay == null) {
+                            return Mono.<Long>error(signal.failure());
+                        }
+                        log.warn("OpenAI stream for {} failed before first chunk, retrying in {}ms: {}",
+                                operation, delay.toMillis(), signal.failure().getMessage());
+                        llmMetrics.recordRetry(operation, signal.failure());
+                        return Mono.delay(delay);
+                    })))
+                    // idle timeout between chunks, clipped to the remaining deadline
+                    .timeout(Mono.never(), event -> Mono.delay(llmRetryPolicy.attemptTimeout(deadline)))
+                    .mapNotNull(ServerSentEvent::data)
+                    .takeWhile(data -> !STREAM_DONE.equals(data.trim()))
+                    .mapNotNull(this::parseChunk)
+                    .doOnNext(chunk -> {
+                        if (chunk.usage() != null) {
+                            usage.set(chunk.usage());
+                        }
+                    })
+                    .mapNotNull(this::extractDeltaContent)
+                    .doOnNext(content -> {
+                        if (firstToken.compareAndSet(true, false)) {
+                            llmMetrics.recordFirstToken(operation, profile, Duration.ofNanos(System.nanoTime() - startNanos));
+                        }
+                    })
+                    .doOnComplete(() -> llmMetrics.recordSuccess(sample, operation, profile, usage.get()))
+                    .doOnError(e -> {
+                        failure.set(e);
+                        llmMetrics.recordFailure(sample, operation, profile, e);
+                    })
+                    .doOnCancel(() -> llmMetrics.recordCancelled(sample, operation, profile))
+                    .doFinally(signal -> {
+                        permit.release(failure.get());
+                        slot.release();
+                    });
+        });
+    }
+
+    private ChatChunk parseChunk(String data) {
+        try {
+            return objectMapper.readValue(data, ChatChunk.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse OpenAI stream chunk: {}", data);
+            return null;
+        }
+    }
+
+    private String extractDeltaContent(ChatChunk chunk) {
+        if (chunk.choices() != null && !chunk.choices().isEmpty() && chunk.choices().get(0).delta() != null) {
+            String content = chunk.choices().get(0).delta().content();
+            return content != null && !content.isEmpty() ? content : null;
+        }
+        return null;
+    }
+
+    private record HedgedResponse(ChatResponse response, boolean hedge) {}
+
+    private record InFlightCall(AiPriority priority, CompletableFuture<String> result) {}
+
+    private record InFlightKey(
+            LlmOperation operation,
+            OpenAIConfig.ResolvedProfile profile,
+            ResponseFormat responseFormat,
+            String systemPrompt,
+            String userMessage
+    ) {}
+
     // Request/Response DTOs
     public record ChatRequest(
             String model,
             List<ChatMessage> messages,
             @JsonProperty("max_completion_tokens") Integer maxCompletionTokens,
-            double temperature
-    ) {
-        // Constructor that handles 0 or negative maxTokens by setting to null (no limit)
-        public ChatRequest(String model, List<ChatMessage> messages, int maxTokens, double temperature) {
-            this(model, messages, maxTokens > 0 ? maxTokens : null, temperature);
-        }
-    }
+            @JsonInclude(JsonInclude.Include.NON_NULL) Double temperature,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("reasoning_effort") String reasoningEffort,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Boolean stream,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("stream_options") StreamOptions streamOptions,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("response_format") ResponseFormat responseFormat
+    ) {}
+
+    public record ResponseFormat(
+            String type,
+            @JsonProperty("json_schema") JsonSchema jsonSchema
+    ) {}
+
+    public record JsonSchema(
+            String name,
+            boolean strict,
+            Map<String, Object> schema
+    ) {}
+
+    public record StreamOptions(
+            @JsonProperty("include_usage") boolean includeUsage
+    ) {}
 
     public record ChatMessage(
             String role,
@@ -130,9 +462,33 @@ public class OpenAIClient {
             @JsonProperty("finish_reason") String finishReason
     ) {}
 
+    public record ChatChunk(
+            String id,
+            String model,
+            List<ChunkChoice> choices,
+            Usage usage
+    ) {}
+
+    public record ChunkChoice(
+            int index,
+            ChatMessage delta,
+            @JsonProperty("finish_reason") String finishReason
+    ) {}
+
     public record Usage(
             @JsonProperty("prompt_tokens") int promptTokens,
             @JsonProperty("completion_tokens") int completionTokens,
-            @JsonProperty("total_tokens") int totalTokens
+            @JsonProperty("total_tokens") int totalTokens,
+            @JsonProperty("prompt_tokens_details") PromptTokensDetails promptTokensDetails
+    ) {
+        // Prompt tokens served from the provider's prefix cache (0 when not reported)
+        public int cachedTokens() {
+            return promptTokensDetails != null && promptTokensDetails.cachedTokens() != null
+                    ? promptTokensDetails.cachedTokens() : 0;
+        }
+    }
+
+    public record PromptTokensDetails(
+            @JsonProperty("cached_tokens") Integer cachedTokens
     ) {}
 }
@@ -0,0 +1,43 @@
+package com.katoksai.backend.service;
+
+/**
+ * LLM 프롬프트 조립기
+ * 고정 지시문은 항상 system 메시지(동일 prefix)로, 요청마다 달라지는 데이터는 user 메시지 뒤쪽으로 배치하여
+ * OpenAI 호환 서버의 prefix 캐시가 지시문 부분을 재사용할 수 있게 함
+ * 지시문에는 요청별 값을 넣지 말 것 (String.format 금지)
+ */
+public final class PromptBuilder {
+
+    private final String instructions;
+    private final StringBuilder data = new StringBuilder();
+
+    private PromptBuilder(String instructions) {
+        this.instructions = instructions;
+    }
+
+    public static PromptBuilder withInstructions(String instructions) {
+        return new PromptBuilder(instructions);
+    }
+
+    /**
+     * 요청 데이터 블록 추가 (추가한 순서대로 배치 - 자주 바뀌지 않는 데이터를 먼저)
+     */
+    public PromptBuilder section(String title, String content) {
+        return section(title, content, "(없음)");
+    }
+
+    public PromptBuilder section(String title, String content, String emptyPlaceholder) {
+        if (!data.isEmpty()) {
+            data.append("\n\n");
+        }
+        data.append("### ").append(title).append(":\n")
+                .append(content == null || content.isBlank() ? emptyPlaceholder : content);
+        return this;
+    }
+
+    public Prompt build() {
+        return new Prompt(instructions, data.toString());
+    }
+
+    public record Prompt(String system, String user) {}
+}
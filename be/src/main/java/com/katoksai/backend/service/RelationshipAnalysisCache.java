@@ -0,0 +1,58 @@
+package com.katoksai.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.katoksai.backend.config.AIProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 관계 분석 결과 캐시
+ * 키에 채팅방의 마지막 메시지 id(watermark)가 포함되어 새 메시지가 오면 자연스럽게 무효화됨
+ * 더 이상 조회되지 않는 이전 watermark 항목은 크기/TTL 제한으로 제거되므로 별도로 지우지 않음
+ */
+@Component
+public class RelationshipAnalysisCache {
+
+    private final Cache<Key, AIService.RelationshipAnalysis> cache;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public RelationshipAnalysisCache(AIProperties aiProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(aiProperties.getCache().getRelationshipMaxSize())
+                .expireAfterWrite(aiProperties.getCache().getRelationshipTtl())
+                .build();
+
+        this.hitCounter = Counter.builder("ai.cache.relationship")
+                .tag("result", "hit")
+                .description("관계 분석 캐시 조회 결과")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("ai.cache.relationship")
+                .tag("result", "miss")
+                .description("관계 분석 캐시 조회 결과")
+                .register(meterRegistry);
+        Gauge.builder("ai.cache.relationship.size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public Optional<AIService.RelationshipAnalysis> get(Long chatRoomId, Long userId, Long friendId, Long lastMessageId) {
+        AIService.RelationshipAnalysis cached = cache.getIfPresent(new Key(chatRoomId, userId, friendId, lastMessageId));
+        if (cached != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return Optional.ofNullable(cached);
+    }
+
+    public void put(Long chatRoomId, Long userId, Long friendId, Long lastMessageId, AIService.RelationshipAnalysis analysis) {
+        cache.put(new Key(chatRoomId, userId, friendId, lastMessageId), analysis);
+    }
+
+    private record Key(Long chatRoomId, Long userId, Long friendId, Long lastMessageId) {}
+}
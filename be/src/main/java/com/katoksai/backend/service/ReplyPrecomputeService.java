@@ -0,0 +1,219 @@
+package com.katoksai.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.katoksai.backend.config.AIProperties;
+import com.katoksai.backend.entity.Friendship;
+import com.katoksai.backend.entity.Message;
+import com.katoksai.backend.repository.FriendshipRepository;
+import com.katoksai.backend.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 이벤트 메시지 답장 미리 생성
+ * 이벤트 메시지가 저장되면 받는 사람이 AI 답장 패널을 열기 전에 답장을 만들어 두고,
+ * /ai/generate-reply 요청 시 대화가 그 이후로 바뀌지 않았으면 바로 반환
+ */
+@Service
+@Slf4j
+public class ReplyPrecomputeService {
+
+    // 친밀도가 높을수록(답장할 가능성이 높음), 같으면 최신 메시지일수록 먼저 처리
+    private static final Comparator<Task> PRIORITY = Comparator
+            .comparingInt(Task::intimacyScore).reversed()
+            .thenComparing(Comparator.comparingLong(Task::sequence).reversed());
+
+    private final AIService aiService;
+    private final AiJobScheduler aiJobScheduler;
+    private final MessageRepository messageRepository;
+    private final FriendshipRepository friendshipRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor replyPrecomputeExecutor;
+    private final AIProperties.Precompute settings;
+
+    private final TreeSet<Task> queue = new TreeSet<>(PRIORITY);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<Key, Entry> results;
+
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+    private final Counter completedCounter;
+    private final Counter wastedCounter;
+    private final Counter droppedCounter;
+
+    public ReplyPrecomputeService(AIService aiService,
+                                  AiJobScheduler aiJobScheduler,
+                                  MessageRepository messageRepository,
+                                  FriendshipRepository friendshipRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TaskExecutor replyPrecomputeExecutor,
+                                  AIProperties aiProperties,
+                                  MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.aiJobScheduler = aiJobScheduler;
+        this.messageRepository = messageRepository;
+        this.friendshipRepository = friendshipRepository;
+        this.eventPublisher = eventPublisher;
+        this.replyPrecomputeExecutor = replyPrecomputeExecutor;
+        this.settings = aiProperties.getPrecompute();
+
+        this.hitCounter = lookupCounter(meterRegistry, "hit");
+        this.staleCounter = lookupCounter(meterRegistry, "stale");
+        this.missCounter = lookupCounter(meterRegistry, "miss");
+        this.completedCounter = Counter.builder("ai.precompute.completed")
+                .description("미리 생성 완료된 답장 수")
+                .register(meterRegistry);
+        this.wastedCounter = Counter.builder("ai.precompute.wasted")
+                .description("한 번도 사용되지 않고 버려진 미리 생성 답장 수")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("ai.precompute.dropped")
+                .description("대기열 초과로 버려진 미리 생성 작업 수")
+                .register(meterRegistry);
+
+        // 사용되지 않은 결과가 만료/교체/무효화되면 낭비된 작업으로 집계
+        this.results = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxResults())
+                .expireAfterWrite(settings.getTtl())
+                .<Key, Entry>removalListener((key, entry, cause) -> {
+                    if (entry != null && !entry.served().get()) {
+                        wastedCounter.increment();
+                    }
+                })
+                .build();
+
+        Gauge.builder("ai.precompute.queue.size", this, ReplyPrecomputeService::queueSize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이벤트 메시지에 대한 미리 생성 요청 (메시지 저장 트랜잭션 안에서 호출)
+     * 실제 작업은 커밋 후 대기열에 들어감
+     */
+    public void schedule(Long chatRoomId, Long recipientId, Long senderId, Message.EventType eventType) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        int intimacyScore = friendshipRepository.findByUserIdAndFriendId(recipientId, senderId)
+                .map(Friendship::getIntimacyScore)
+                .orElse(50);
+        eventPublisher.publishEvent(new ReplyPrecomputeRequested(new Task(
+                new Key(chatRoomId, recipientId, senderId, eventType.name()),
+                intimacyScore,
+                sequence.incrementAndGet())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRequested(ReplyPrecomputeRequested event) {
+        offer(event.task());
+        try {
+            replyPrecomputeExecutor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            // 이미 실행 대기 중인 drain 이 대기열의 작업을 처리함
+            log.debug("Reply precompute workers are busy, task stays queued");
+        }
+    }
+
+    /**
+     * 아직 유효한 미리 생성 답장 조회
+     * 생성 이후 채팅방에 새 메시지가 있으면 stale 로 보고 버림
+     */
+    public Optional<AIService.ReplyGenerationResult> getFresh(Long chatRoomId, Long userId, Long friendId, String eventType) {
+        if (eventType == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        Key key = new Key(chatRoomId, userId, friendId, eventType.toUpperCase());
+        Entry entry = results.getIfPresent(key);
+        if (entry == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        if (!entry.lastMessageId().equals(messageRepository.findLastMessageId(chatRoomId))) {
+            staleCounter.increment();
+            results.asMap().remove(key, entry);
+            return Optional.empty();
+        }
+        entry.served().set(true);
+        hitCounter.increment();
+        log.debug("Serving precomputed reply for user {} in chat room {}", userId, chatRoomId);
+        return Optional.of(entry.result());
+    }
+
+    private synchronized void offer(Task task) {
+        // 같은 대상에 대한 이전 작업은 새 작업으로 대체
+        queue.removeIf(queued -> queued.key().equals(task.key()));
+        queue.add(task);
+        if (queue.size() > settings.getQueueCapacity()) {
+            Task dropped = queue.pollLast();
+            droppedCounter.increment();
+            log.debug("Reply precompute queue full, dropped task for chat room {}", dropped.key().chatRoomId());
+        }
+    }
+
+    private synchronized Task poll() {
+        return queue.pollFirst();
+    }
+
+    private synchronized int queueSize() {
+        return queue.size();
+    }
+
+    private void drain() {
+        Task task;
+        while ((task = poll()) != null) {
+            process(task.key());
+        }
+    }
+
+    private void process(Key key) {
+        try {
+            // 생성 시작 시점의 대화 watermark - 생성 중 새 메시지가 오면 조회 시 stale 처리됨
+            Long lastMessageId = messageRepository.findLastMessageId(key.chatRoomId());
+            // 추측성 작업이므로 가장 낮은 우선순위로 실행
+            AIService.ReplyGenerationResult result = aiJobScheduler.call(AiPriority.BATCH, () -> aiService.generateReply(
+                    key.chatRoomId(), key.userId(), key.friendId(), key.eventType()));
+
+            // LLM 실패로 인한 기본 답장은 저장하지 않음 (요청 시 다시 시도)
+            if (result.fallback()) {
+                return;
+            }
+            results.put(key, new Entry(result, lastMessageId, new AtomicBoolean(false)));
+            completedCounter.increment();
+            log.info("Precomputed {} reply for user {} in chat room {}", key.eventType(), key.userId(), key.chatRoomId());
+        } catch (Exception e) {
+            log.warn("Reply precompute failed for chat room {}: {}", key.chatRoomId(), e.getMessage());
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.precompute.lookups")
+                .tag("result", result)
+                .description("미리 생성 답장 조회 결과")
+                .register(meterRegistry);
+    }
+
+    public record ReplyPrecomputeRequested(Task task) {}
+
+    // userId: 답장할 사람(이벤트 메시지 수신자), friendId: 이벤트 메시지 보낸 사람
+    private record Key(Long chatRoomId, Long userId, Long friendId, String eventType) {}
+
+    private record Task(Key key, int intimacyScore, long sequence) {}
+
+    private record Entry(AIService.ReplyGenerationResult result, Long lastMessageId, AtomicBoolean served) {}
+}
@@ -0,0 +1,57 @@
+package com.katoksai.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * LLM 응답(JSON)을 DTO 로 변환
+ * 응답 전체를 문자열로 다듬지 않고 첫 '{' 부터 streaming parser 로 JSON 값 하나만 읽음
+ * (structured output 을 쓰지 않는 경우의 코드 블록/앞뒤 설명도 무시됨)
+ * 메트릭: ai.llm.structured.parse (operation, outcome=success|failure) - 실패 비율이 버려진 응답 비율
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StructuredOutputParser {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @return 변환 결과, 실패하면 null
+     */
+    public <T> T parse(LlmOperation operation, String content, Class<T> type) {
+        int start = content != null ? content.indexOf('{') : -1;
+        if (start < 0) {
+            log.warn("No JSON object in {} response", operation);
+            record(operation, "failure");
+            return null;
+        }
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(content.substring(start))) {
+            T result = objectMapper.readValue(parser, type);
+            record(operation, result != null ? "success" : "failure");
+            return result;
+        } catch (IOException e) {
+            log.warn("Failed to parse {} response: {}", operation, e.getMessage());
+            record(operation, "failure");
+            return null;
+        }
+    }
+
+    private void record(LlmOperation operation, String outcome) {
+        Counter.builder("ai.llm.structured.parse")
+                .description("LLM 응답 JSON 변환 결과")
+                .tag("operation", operation.getTag())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,119 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.entity.ChatRoom;
+import com.katoksai.backend.entity.Message;
+import com.katoksai.backend.entity.User;
+import com.katoksai.backend.repository.MessageRepository;
+import com.katoksai.backend.repository.UserStyleProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 채팅방별 사용자 말투 프로필 관리
+ * 메시지 전송마다 O(1) 카운터 증가로 갱신하고, 답장 생성 시에는 프로필만 읽음
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStyleService {
+
+    // 프로필 최초 생성 시 기존 대화에서 가져오는 샘플 크기 (기존 분석 범위와 동일)
+    public static final int SAMPLE_SIZE = 30;
+
+    private final UserStyleProfileRepository userStyleProfileRepository;
+    private final MessageRepository messageRepository;
+
+    /**
+     * 전송된 메시지를 프로필에 반영 (메시지 저장 트랜잭션 안에서 호출)
+     */
+    public void recordMessage(ChatRoom chatRoom, User sender, String content) {
+        StyleCounts counts = StyleCounts.of(content);
+        int updated = userStyleProfileRepository.increment(
+                chatRoom.getId(), sender.getId(),
+                counts.emojiMessages(), counts.laughterMessages(),
+                counts.exclamations(), counts.politeMessages());
+        if (updated > 0) {
+            return;
+        }
+
+        // 프로필이 없으면 기존 메시지 샘플(방금 저장한 메시지 포함)로 초기값 생성
+        // 같은 채팅방에서 첫 메시지가 동시에 저장되어 다른 요청이 먼저 만들었으면 그 프로필에 이 메시지만 반영
+        List<Message> sample = messageRepository.findRecentByChatRoomIdAndSenderId(
+                chatRoom.getId(), sender.getId(), PageRequest.of(0, SAMPLE_SIZE));
+        StyleCounts seed = StyleCounts.of(sample);
+        int inserted = userStyleProfileRepository.insertIfAbsent(
+                chatRoom.getId(), sender.getId(),
+                seed.messages(), seed.emojiMessages(), seed.laughterMessages(),
+                seed.exclamations(), seed.politeMessages());
+        if (inserted == 0) {
+            userStyleProfileRepository.increment(
+                    chatRoom.getId(), sender.getId(),
+                    counts.emojiMessages(), counts.laughterMessages(),
+                    counts.exclamations(), counts.politeMessages());
+            return;
+        }
+        log.debug("Created style profile for user {} in chat room {} from {} messages", sender.getId(), chatRoom.getId(), sample.size());
+    }
+
+    /**
+     * 저장된 프로필 기반 말투 조회
+     * 프로필이 없으면(기능 도입 이전 대화) 전달받은 최근 메시지 샘플로 계산
+     */
+    public UserStyle getStyle(Long chatRoomId, Long userId, List<Message> sample) {
+        return userStyleProfileRepository.findByChatRoomIdAndUserId(chatRoomId, userId)
+                .map(p -> toStyle(new StyleCounts(p.getMessageCount(), p.getEmojiMessageCount(),
+                        p.getLaughterMessageCount(), p.getExclamationCount(), p.getPoliteMessageCount())))
+                .orElseGet(() -> toStyle(StyleCounts.of(sample)));
+    }
+
+    private UserStyle toStyle(StyleCounts counts) {
+        if (counts.messages() == 0) {
+            return new UserStyle(false, false, false, "보통");
+        }
+
+        // 누적 카운터이므로 "최근 30개 중 한 번이라도" 기준을 비율(평균 30개당 1회 이상)로 환산
+        long messages = counts.messages();
+        boolean usesEmoji = counts.emojiMessages() * SAMPLE_SIZE >= messages;
+        boolean usesLaughter = counts.laughterMessages() * SAMPLE_SIZE >= messages;
+        boolean highTension = counts.exclamations() > messages * 2;
+        String politeness = counts.politeMessages() * SAMPLE_SIZE >= messages ? "존댓말" : "반말";
+
+        return new UserStyle(usesEmoji, usesLaughter, highTension, politeness);
+    }
+
+    public record UserStyle(boolean usesEmoji, boolean usesLaughter, boolean highTension, String politeness) {}
+
+    private record StyleCounts(long messages, long emojiMessages, long laughterMessages, long exclamations, long politeMessages) {
+
+        static StyleCounts of(String content) {
+            if (content == null) {
+                return new StyleCounts(1, 0, 0, 0, 0);
+            }
+            // 이모지 유니코드 범위 체크
+            boolean emoji = content.codePoints()
+                    .anyMatch(cp -> (cp >= 0x1F300 && cp <= 0x1F9FF) || (cp >= 0x2600 && cp <= 0x26FF));
+            boolean laughter = content.contains("ㅋㅋ") || content.contains("ㅎㅎ");
+            long exclamations = content.chars().filter(ch -> ch == '!').count();
+            boolean polite = content.contains("요") || content.contains("습니다") || content.contains("세요");
+            return new StyleCounts(1, emoji ? 1 : 0, laughter ? 1 : 0, exclamations, polite ? 1 : 0);
+        }
+
+        static StyleCounts of(List<Message> messages) {
+            StyleCounts total = new StyleCounts(0, 0, 0, 0, 0);
+            for (Message message : messages) {
+                total = total.plus(of(message.getContent()));
+            }
+            return total;
+        }
+
+        StyleCounts plus(StyleCounts other) {
+            return new StyleCounts(messages + other.messages, emojiMessages + other.emojiMessages,
+                    laughterMessages + other.laughterMessages, exclamations + other.exclamations,
+                    politeMessages + other.politeMessages);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.katoksai.backend.controller;
+
+import com.katoksai.backend.service.AIService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * 느린 AI 호출이 몰려도 Tomcat 워커 스레드가 묶이지 않는지 확인하는 부하 테스트
+ * 워커 스레드보다 훨씬 많은 AI 요청을 동시에 보내 모두 처리 중인 상태에서 채팅 API 응답 시간을 측정
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=" + AIControllerVirtualThreadTest.TOMCAT_THREADS,
+                "server.tomcat.threads.min-spare=" + AIControllerVirtualThreadTest.TOMCAT_THREADS,
+                "ai.scheduler.max-concurrent=" + AIControllerVirtualThreadTest.AI_REQUESTS,
+                "ai.scheduler.interactive.max-concurrent=" + AIControllerVirtualThreadTest.AI_REQUESTS
+        })
+@ActiveProfiles("test")
+class AIControllerVirtualThreadTest {
+
+    static final int TOMCAT_THREADS = 4;
+    static final int AI_REQUESTS = 40;
+    private static final Duration AI_LATENCY = Duration.ofSeconds(3);
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @MockBean
+    private AIService aiService;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void slowAiCallsDoNotBlockChatEndpoints() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(AI_REQUESTS);
+        when(aiService.detectEvent(anyString())).thenAnswer(invocation -> {
+            inFlight.countDown();
+            Thread.sleep(AI_LATENCY.toMillis());
+            return new AIService.EventDetectionResult("WEDDING", 0.9, List.of("결혼"), "결혼 소식");
+        });
+
+        List<CompletableFuture<HttpResponse<String>>> aiResponses = new ArrayList<>();
+        for (int i = 0; i < AI_REQUESTS; i++) {
+            aiResponses.add(httpClient.sendAsync(post("/ai/detect-event", "{\"message\":\"다음 달에 결혼해\"}"),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // 워커 스레드 수보다 많은 AI 요청이 동시에 LLM 호출 중이어야 함
+        assertThat(inFlight.await(AI_LATENCY.toMillis() - 500, TimeUnit.MILLISECONDS)).isTrue();
+
+        long startedAt = System.nanoTime();
+        HttpResponse<String> chatRooms = httpClient.send(get("/chat-rooms?userId=1"), HttpResponse.BodyHandlers.ofString());
+        Duration chatLatency = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        assertThat(chatRooms.statusCode()).isEqualTo(200);
+        assertThat(chatLatency).isLessThan(Duration.ofSeconds(1));
+
+        CompletableFuture.allOf(aiResponses.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        assertThat(aiResponses).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api" + path);
+    }
+}
@@ -0,0 +1,48 @@
+package com.katoksai.backend.repository;
+
+import com.katoksai.backend.entity.ChatRoom;
+import com.katoksai.backend.entity.User;
+import com.katoksai.backend.entity.UserStyleProfile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 말투 프로필 생성 쿼리가 테스트 DB(H2, PostgreSQL 모드)에서도 동작하는지 확인
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class UserStyleProfileRepositoryTest {
+
+    @Autowired
+    private UserStyleProfileRepository userStyleProfileRepository;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void insertIfAbsentCreatesProfileOnceThenIncrementApplies() {
+        ChatRoom chatRoom = chatRoomRepository.findAll().get(0);
+        User user = userRepository.findByUserId("rui").orElseThrow();
+        userStyleProfileRepository.deleteAll();
+
+        assertThat(userStyleProfileRepository.insertIfAbsent(chatRoom.getId(), user.getId(), 5, 1, 2, 3, 0)).isEqualTo(1);
+        assertThat(userStyleProfileRepository.insertIfAbsent(chatRoom.getId(), user.getId(), 5, 1, 2, 3, 0)).isZero();
+        assertThat(userStyleProfileRepository.increment(chatRoom.getId(), user.getId(), 1, 0, 0, 1)).isEqualTo(1);
+
+        UserStyleProfile profile = userStyleProfileRepository
+                .findByChatRoomIdAndUserId(chatRoom.getId(), user.getId())
+                .orElseThrow();
+        assertThat(profile.getMessageCount()).isEqualTo(6);
+        assertThat(profile.getEmojiMessageCount()).isEqualTo(2);
+        assertThat(profile.getPoliteMessageCount()).isEqualTo(1);
+    }
+}
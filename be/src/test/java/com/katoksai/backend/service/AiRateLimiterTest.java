@@ -0,0 +1,102 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.AIProperties;
+import com.katoksai.backend.dto.response.ApiResponse;
+import com.katoksai.backend.exception.GlobalExceptionHandler;
+import com.katoksai.backend.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * GCRA 버킷: capacity 개 연속 허용, 초과 시 retry-after ≒ refill-interval, interval 후 토큰 1개 회복
+ */
+class AiRateLimiterTest {
+
+    private static final int CAPACITY = 3;
+    private static final Duration INTERVAL = Duration.ofMillis(300);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AiRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        AIProperties aiProperties = new AIProperties();
+        aiProperties.getRateLimit().setDetectEvent(new AIProperties.RateLimit.Bucket(CAPACITY, INTERVAL));
+        rateLimiter = new AiRateLimiter(aiProperties, meterRegistry);
+    }
+
+    @Test
+    void allowsExactlyCapacityRequestsInBurst() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThatCode(() -> rateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, 1L)).doesNotThrowAnyException();
+        }
+
+        RateLimitExceededException rejected = catchThrowableOfType(
+                () -> rateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, 1L), RateLimitExceededException.class);
+
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.getRetryAfter()).isPositive().isLessThanOrEqualTo(INTERVAL);
+        assertThat(rejected.getRetryAfter()).isGreaterThan(INTERVAL.minusMillis(150));
+        assertThat(meterRegistry.get("ai.ratelimit.rejected").tag("operation", "detect_event").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            rateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, 1L);
+        }
+
+        Thread.sleep(INTERVAL.toMillis() + 20);
+
+        assertThatCode(() -> rateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, 1L)).doesNotThrowAnyException();
+        assertThat(catchThrowableOfType(() -> rateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, 1L),
+                RateLimitExceededException.class)).isNotNull();
+    }
+
+    @Test
+    void bucketsAreIndependentPerUserAndOperation() {
+        for (int i = 0; i < CAPACITY; i++) {
+            rateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, 1L);
+        }
+
+        assertThatCode(() -> rateLimiter.check(AiRateLimiter.Operation.DETECT_EVENT, 2L)).doesNotThrowAnyException();
+        assertThatCode(() -> rateLimiter.check(AiRateLimiter.Operation.GENERATE_REPLY, 1L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        AIProperties aiProperties = new AIProperties();
+        aiProperties.getRateLimit().setEnabled(false);
+        aiProperties.getRateLimit().setDetectEvent(new AIProperties.RateLimit.Bucket(1, INTERVAL));
+        AiRateLimiter disabled = new AiRateLimiter(aiProperties, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            assertThatCode(() -> disabled.check(AiRateLimiter.Operation.DETECT_EVENT, 1L)).doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    void rateLimitMapsTo429WithRetryAfterRoundedUpToSeconds() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        ResponseEntity<ApiResponse<Void>> subSecond = handler.handleRateLimitExceeded(
+                new RateLimitExceededException("too many", Duration.ofMillis(200)));
+        ResponseEntity<ApiResponse<Void>> fractional = handler.handleRateLimitExceeded(
+                new RateLimitExceededException("too many", Duration.ofMillis(2_500)));
+
+        assertThat(subSecond.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(subSecond.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(fractional.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+}
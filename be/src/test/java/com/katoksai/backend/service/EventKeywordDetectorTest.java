@@ -0,0 +1,133 @@
+package com.katoksai.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katoksai.backend.config.AIProperties;
+import com.katoksai.backend.entity.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 오토마톤 기반 감지가 기존 MessageService 의 정규식 순차 검사와 같은 결과를 내는지 확인
+ * 키워드는 application.yml 의 ai.event-detection 기본값과 같음
+ */
+class EventKeywordDetectorTest {
+
+    // 기존 MessageService.detectEvent 의 패턴
+    private static final Pattern WEDDING_PATTERN = Pattern.compile("결혼|웨딩|청첩장|식장|신랑|신부|혼인", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BIRTHDAY_PATTERN = Pattern.compile("생일|생축|태어난|birthday", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FUNERAL_PATTERN = Pattern.compile("장례|부고|돌아가|상가|조문|빈소", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REUNION_PATTERN = Pattern.compile("동창|모임|오랜만|reunion", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REPLY_PATTERN = Pattern.compile("축하해|축하드|축하합|감사|고마워|명복|위로|잘됐|좋겠|부럽|갈게|참석|ㅊㅋ", Pattern.CASE_INSENSITIVE);
+
+    private EventKeywordDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        AIProperties aiProperties = new AIProperties();
+        AIProperties.EventDetection eventDetection = aiProperties.getEventDetection();
+        eventDetection.setKeywords(Map.of(
+                Message.EventType.WEDDING, List.of("결혼", "웨딩", "청첩장", "식장", "신랑", "신부", "혼인"),
+                Message.EventType.BIRTHDAY, List.of("생일", "생축", "태어난", "birthday"),
+                Message.EventType.FUNERAL, List.of("장례", "부고", "돌아가", "상가", "조문", "빈소"),
+                Message.EventType.REUNION, List.of("동창", "모임", "오랜만", "reunion")));
+        eventDetection.setReplyKeywords(List.of(
+                "축하해", "축하드", "축하합", "감사", "고마워", "명복", "위로", "잘됐", "좋겠", "부럽", "갈게", "참석", "ㅊㅋ"));
+        eventDetection.setNegationKeywords(List.of("아니", "취소", "농담", "장난", "못 가", "안 가", "연기됐"));
+        detector = new EventKeywordDetector(aiProperties, new ObjectMapper());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "나 다음 달에 결혼해! 청첩장 보낼게",
+            "결혼 축하해!!",
+            "와 진짜 축하드려요 꼭 참석할게",
+            "이번 주 토요일이 내 생일이야 ㅎㅎ",
+            "Happy BIRTHDAY to me",
+            "할아버지께서 돌아가셨어. 빈소는 서울대병원이야",
+            "삼가 고인의 명복을 빕니다",
+            "내일 우리 동창 모임 있는 거 알지?",
+            "REUNION party this weekend",
+            "오랜만에 생일 모임 하자",
+            "결혼식장에서 동창들 만났어",
+            "생일 겸 청첩장 모임",
+            "상가집 다녀왔어",
+            "결혼결혼결혼",
+            "웨딩홀 예약했는데 신랑 신부 대기실이 좁더라",
+            "오늘 점심 뭐 먹을까",
+            "ㅊㅋㅊㅋ",
+            ""
+    })
+    void matchesLegacyRegexClassification(String content) {
+        assertThat(detector.detect(content).eventType()).isEqualTo(legacyDetect(content));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // 여러 이벤트가 함께 나오면 WEDDING > BIRTHDAY > FUNERAL > REUNION
+            "'동창 모임에서 생일 파티 하고 결혼 발표했어', WEDDING",
+            "'동창 모임 겸 생일 파티', BIRTHDAY",
+            "'동창 모임 가다가 부고 들었어', FUNERAL",
+            "'오랜만에 동창 모임', REUNION"
+    })
+    void prefersEventTypesInPriorityOrder(String content, Message.EventType expected) {
+        assertThat(detector.detect(content).eventType()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"결혼 축하해", "생일 축하합니다", "결혼식 꼭 갈게", "부럽다 결혼이라니", "청첩장 고마워"})
+    void replyKeywordsSuppressDetection(String content) {
+        EventKeywordDetector.Detection detection = detector.detect(content);
+
+        assertThat(detection.replyCue()).isTrue();
+        assertThat(detection.eventType()).isNull();
+    }
+
+    @Test
+    void reportsNegationCueWithoutChangingEventType() {
+        EventKeywordDetector.Detection detection = detector.detect("결혼 취소됐어");
+
+        assertThat(detection.negationCue()).isTrue();
+        assertThat(detection.eventType()).isEqualTo(Message.EventType.WEDDING);
+    }
+
+    @Test
+    void reportsOverlappingKeywordsWithPositions() {
+        KeywordAutomaton<String> automaton = new KeywordAutomaton<>(Map.of(
+                "A", List.of("he", "hers"),
+                "B", List.of("she", "his")));
+
+        List<KeywordAutomaton.Match<String>> matches = automaton.findAll("uSHErs");
+
+        assertThat(matches).containsExactly(
+                new KeywordAutomaton.Match<>("SHE", "B", 1, 4),
+                new KeywordAutomaton.Match<>("HE", "A", 2, 4),
+                new KeywordAutomaton.Match<>("HErs", "A", 2, 6));
+    }
+
+    @Test
+    void reportsEveryOccurrenceOfRepeatedKeyword() {
+        List<KeywordAutomaton.Match<String>> matches = detector.detect("결혼결혼결혼").matches();
+
+        assertThat(matches).extracting(KeywordAutomaton.Match::start).containsExactly(0, 2, 4);
+    }
+
+    private static Message.EventType legacyDetect(String content) {
+        if (REPLY_PATTERN.matcher(content).find()) {
+            return null;
+        }
+        if (WEDDING_PATTERN.matcher(content).find()) return Message.EventType.WEDDING;
+        if (BIRTHDAY_PATTERN.matcher(content).find()) return Message.EventType.BIRTHDAY;
+        if (FUNERAL_PATTERN.matcher(content).find()) return Message.EventType.FUNERAL;
+        if (REUNION_PATTERN.matcher(content).find()) return Message.EventType.REUNION;
+        return null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.katoksai.backend.service;
+
+import com.katoksai.backend.config.AIProperties;
+import com.katoksai.backend.config.OpenAIConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재시도 정책: Retry-After 해석, deadline 에 맞춘 대기/타임아웃, 재시도 대상 실패 분류
+ */
+class LlmRetryPolicyTest {
+
+    private static final LlmOperation OPERATION = LlmOperation.REPLY_GENERATION;
+
+    private OpenAIConfig openAIConfig;
+    private LlmRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        openAIConfig = new OpenAIConfig();
+        openAIConfig.setTimeout(10_000);
+        openAIConfig.getRetry().setMaxAttempts(3);
+        openAIConfig.getRetry().setInitialBackoff(Duration.ofMillis(500));
+        openAIConfig.getRetry().setMaxBackoff(Duration.ofSeconds(8));
+        openAIConfig.getRetry().setDeadline(Duration.ofSeconds(60));
+
+        AIProperties aiProperties = new AIProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LlmGuard llmGuard = new LlmGuard(aiProperties, meterRegistry);
+        AiJobScheduler aiJobScheduler = new AiJobScheduler(new SimpleAsyncTaskExecutor(), aiProperties, meterRegistry);
+        retryPolicy = new LlmRetryPolicy(openAIConfig, llmGuard, aiJobScheduler);
+    }
+
+    @Test
+    void parsesRetryAfterDeltaSeconds() {
+        assertThat(LlmRetryPolicy.retryAfter(response(429, HttpHeaders.RETRY_AFTER, "3"))).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void prefersRetryAfterMilliseconds() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("retry-after-ms", "1500");
+        headers.add(HttpHeaders.RETRY_AFTER, "3");
+
+        assertThat(LlmRetryPolicy.retryAfter(response(429, headers))).isEqualTo(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void parsesRetryAfterHttpDate() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(10));
+
+        Duration delay = LlmRetryPolicy.retryAfter(response(503, HttpHeaders.RETRY_AFTER, date));
+
+        assertThat(delay).isBetween(Duration.ofSeconds(8), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void pastHttpDateMeansNoWait() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().minusMinutes(1));
+
+        assertThat(LlmRetryPolicy.retryAfter(response(503, HttpHeaders.RETRY_AFTER, date))).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void ignoresMissingOrInvalidRetryAfter() {
+        assertThat(LlmRetryPolicy.retryAfter(response(503, new HttpHeaders()))).isNull();
+        assertThat(LlmRetryPolicy.retryAfter(response(503, HttpHeaders.RETRY_AFTER, "soon"))).isNull();
+        assertThat(LlmRetryPolicy.retryAfter(new TimeoutException())).isNull();
+    }
+
+    @Test
+    void usesRetryAfterForNextDelay() {
+        Duration delay = retryPolicy.nextDelay(OPERATION, response(429, HttpHeaders.RETRY_AFTER, "2"), 1, retryPolicy.deadline());
+
+        assertThat(delay).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void usesJitteredBackoffWithoutRetryAfter() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(retryPolicy.nextDelay(OPERATION, response(503, new HttpHeaders()), 1, retryPolicy.deadline()))
+                    .isBetween(Duration.ofMillis(250), Duration.ofMillis(500));
+            assertThat(retryPolicy.nextDelay(OPERATION, response(503, new HttpHeaders()), 2, retryPolicy.deadline()))
+                    .isBetween(Duration.ofMillis(500), Duration.ofMillis(1000));
+        }
+    }
+
+    @Test
+    void doesNotRetryPastDeadline() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+
+        assertThat(retryPolicy.nextDelay(OPERATION, response(429, HttpHeaders.RETRY_AFTER, "5"), 1, deadline)).isNull();
+    }
+
+    @Test
+    void doesNotRetryAfterMaxAttempts() {
+        assertThat(retryPolicy.nextDelay(OPERATION, new TimeoutException(), 3, retryPolicy.deadline())).isNull();
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        assertThat(retryPolicy.nextDelay(OPERATION, response(400, new HttpHeaders()), 1, retryPolicy.deadline())).isNull();
+    }
+
+    @Test
+    void clipsAttemptTimeoutToRemainingDeadline() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+        assertThat(retryPolicy.attemptTimeout(deadline)).isBetween(Duration.ofSeconds(4), Duration.ofSeconds(5));
+        // 남은 시간이 충분하면 openai.timeout 그대로
+        assertThat(retryPolicy.attemptTimeout(retryPolicy.deadline())).isEqualTo(Duration.ofSeconds(10));
+        assertThat(retryPolicy.attemptTimeout(System.nanoTime() - 1)).isEqualTo(Duration.ZERO);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {429, 500, 502, 503, 504})
+    void treatsThrottlingAndServerErrorsAsServiceFailures(int status) {
+        assertThat(LlmGuard.isServiceFailure(response(status, new HttpHeaders()))).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 401, 403, 404, 422})
+    void treatsClientErrorsAsNonRetryable(int status) {
+        assertThat(LlmGuard.isServiceFailure(response(status, new HttpHeaders()))).isFalse();
+    }
+
+    @Test
+    void treatsTimeoutsAndConnectionFailuresAsServiceFailures() {
+        assertThat(LlmGuard.isServiceFailure(new TimeoutException())).isTrue();
+        assertThat(LlmGuard.isServiceFailure(new WebClientRequestException(
+                new IOException("connection reset"), HttpMethod.POST, URI.create("http://localhost/v1"), new HttpHeaders())))
+                .isTrue();
+        assertThat(LlmGuard.isServiceFailure(new IllegalStateException())).isFalse();
+    }
+
+    private static WebClientResponseException response(int status, String header, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(header, value);
+        return response(status, headers);
+    }
+
+    private static WebClientResponseException response(int status, HttpHeaders headers) {
+        return WebClientResponseException.create(status, "status " + status, headers, new byte[0], StandardCharsets.UTF_8);
+    }
+}
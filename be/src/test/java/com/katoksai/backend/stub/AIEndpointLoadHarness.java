@@ -0,0 +1,320 @@
+package com.katoksai.backend.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katoksai.backend.entity.UserSettings;
+import com.katoksai.backend.repository.UserRepository;
+import com.katoksai.backend.repository.UserSettingsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI 엔드포인트 부하 측정 (OpenAI 스텁 사용, 기본 test 태스크에서는 제외)
+ * 실행: ./gradlew loadTest -Dload.concurrency=50 -Dload.duration=30s
+ * 고정 동시 사용자 수로 답장 생성/이벤트 감지/결혼 메시지 전송(자동 답장)을 반복하고 처리량,
+ * 시나리오별 응답 시간 p50/p99, Tomcat/DB 커넥션/LLM bulkhead/워커 풀 포화도를 출력
+ * 자동 답장 시나리오는 메시지 전송부터 자동 답장 작업이 끝날 때까지를 응답 시간으로 기록
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT,
+        properties = "server.tomcat.mbeanregistry.enabled=true")
+@ActiveProfiles({"test", "openai-stub"})
+@Slf4j
+class AIEndpointLoadHarness {
+
+    private static final int PORT = freePort();
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 50);
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(200);
+    private static final Duration AUTO_REPLY_POLL_INTERVAL = Duration.ofMillis(50);
+    private static final Duration AUTO_REPLY_TIMEOUT = Duration.ofSeconds(120);
+    private static final String WEDDING_MESSAGE = "나 다음 달에 결혼해! 청첩장 보낼게";
+    private static final Set<String> FINISHED_JOB_STATUSES = Set.of("DONE", "SKIPPED", "FAILED");
+
+    private static final List<String> EVENT_MESSAGES = List.of(
+            "나 다음 달에 결혼해! 청첩장 보낼게",
+            "내일 우리 동창 모임 있는 거 알지?",
+            "이번 주 토요일이 내 생일이야 ㅎㅎ",
+            "오늘 점심 뭐 먹을까"
+    );
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSettingsRepository userSettingsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("autoReplyExecutor")
+    private ThreadPoolTaskExecutor autoReplyExecutor;
+
+    @Autowired
+    @Qualifier("replyPrecomputeExecutor")
+    private ThreadPoolTaskExecutor replyPrecomputeExecutor;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // 스텁 base-url 이 server.port 를 사용하므로 임의 포트 대신 미리 고른 빈 포트로 실행
+    @DynamicPropertySource
+    static void serverPort(DynamicPropertyRegistry registry) {
+        registry.add("server.port", () -> PORT);
+    }
+
+    @Test
+    void aiEndpointsUnderLoad() throws Exception {
+        List<Scenario> scenarios = scenarios();
+
+        Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+        Map<String, List<Double>> saturation = new LinkedHashMap<>();
+        saturationProbes().keySet().forEach(name -> saturation.put(name, new ArrayList<>()));
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> saturationProbes().forEach((name, probe) -> {
+            synchronized (saturation) {
+                saturation.get(name).add(probe.get());
+            }
+        }), 0, SAMPLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        long startedAt = System.nanoTime();
+        long endAt = startedAt + DURATION.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < endAt) {
+                        Scenario scenario = scenarios.get(ThreadLocalRandom.current().nextInt(scenarios.size()));
+                        long requestStart = System.nanoTime();
+                        String status;
+                        try {
+                            status = scenario.call().run();
+                        } catch (IOException e) {
+                            status = e.getClass().getSimpleName();
+                        }
+                        latencies.computeIfAbsent(scenario.name(), key -> new ConcurrentLinkedQueue<>())
+                                .add(System.nanoTime() - requestStart);
+                        statuses.computeIfAbsent(scenario.name() + ":" + status, key -> new LongAdder()).increment();
+                    }
+                    return null;
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        sampler.shutdownNow();
+
+        long[] sorted = latencies.values().stream().flatMap(ConcurrentLinkedQueue::stream)
+                .mapToLong(Long::longValue).sorted().toArray();
+        StringBuilder report = new StringBuilder("\n=== AI endpoint load ===\n")
+                .append(String.format("concurrency=%d duration=%ds requests=%d throughput=%.1f req/s%n",
+                        CONCURRENCY, elapsed.toSeconds(), sorted.length, sorted.length * 1000.0 / elapsed.toMillis()))
+                .append(latencyLine("all", sorted));
+        latencies.forEach((name, samples) ->
+                report.append(latencyLine(name, samples.stream().mapToLong(Long::longValue).sorted().toArray())));
+        report.append("status ").append(statuses).append('\n');
+        synchronized (saturation) {
+            saturation.forEach((name, samples) -> report.append(String.format("%-28s mean=%.1f max=%.0f%n", name,
+                    samples.stream().mapToDouble(Double::doubleValue).average().orElse(0),
+                    samples.stream().mapToDouble(Double::doubleValue).max().orElse(0))));
+        }
+        log.info(report.toString());
+
+        assertThat(statuses.entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith(":200") || entry.getKey().endsWith(":DONE"))
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum()).isPositive();
+    }
+
+    /**
+     * 기본 데이터(DataInitializer)의 1:1 채팅방마다 답장 생성 요청, 결혼 메시지 전송(자동 답장), 이벤트 감지 요청을 섞어서 사용
+     * 자동 답장이 등록되도록 상대방의 답장 모드를 AUTO 로 변경
+     */
+    private List<Scenario> scenarios() throws IOException, InterruptedException {
+        Long userId = userRepository.findByUserId("rui").orElseThrow().getId();
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(uri("/chat-rooms?userId=" + userId)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode rooms = objectMapper.readTree(response.body()).path("data");
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (JsonNode room : rooms) {
+            long chatRoomId = room.path("id").asLong();
+            for (JsonNode member : room.path("members")) {
+                long friendId = member.path("id").asLong();
+                if (friendId == userId) {
+                    continue;
+                }
+                String body = String.format("{\"chatRoomId\":%d,\"friendId\":%d,\"eventType\":\"WEDDING\"}", chatRoomId, friendId);
+                scenarios.add(http("generate-reply", () -> post("/ai/generate-reply?userId=" + userId, body)));
+
+                if ("direct".equals(room.path("type").asText())) {
+                    enableAutoReply(friendId);
+                    scenarios.add(new Scenario("auto-reply", () -> sendWeddingMessage(chatRoomId, userId)));
+                }
+            }
+        }
+        for (String message : EVENT_MESSAGES) {
+            String body = toJson(Map.of("message", message));
+            scenarios.add(http("detect-event", () -> post("/ai/detect-event?userId=" + userId, body)));
+        }
+        log.info("Load scenarios: {}", scenarios.stream()
+                .collect(Collectors.groupingBy(Scenario::name, Collectors.counting())));
+        return scenarios;
+    }
+
+    private Scenario http(String name, Supplier<HttpRequest> request) {
+        return new Scenario(name, () -> String.valueOf(
+                httpClient.send(request.get(), HttpResponse.BodyHandlers.discarding()).statusCode()));
+    }
+
+    private void enableAutoReply(long userId) {
+        UserSettings settings = userSettingsRepository.findByUserId(userId).orElseThrow();
+        settings.setReplyMode(UserSettings.ReplyMode.AUTO);
+        userSettingsRepository.save(settings);
+    }
+
+    /**
+     * 결혼 메시지를 보내고 그 메시지로 등록된 자동 답장 작업이 끝날 때까지 대기 - 결과는 작업 상태
+     */
+    private String sendWeddingMessage(long chatRoomId, long userId) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                post("/chat-rooms/" + chatRoomId + "/messages?userId=" + userId, toJson(Map.of("content", WEDDING_MESSAGE))),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return String.valueOf(response.statusCode());
+        }
+        long messageId = objectMapper.readTree(response.body()).path("data").path("id").asLong();
+
+        long waitUntil = System.nanoTime() + AUTO_REPLY_TIMEOUT.toNanos();
+        while (System.nanoTime() < waitUntil) {
+            List<String> jobStatuses = jdbcTemplate.queryForList(
+                    "SELECT status FROM auto_reply_jobs WHERE trigger_message_id = ?", String.class, messageId);
+            if (jobStatuses.isEmpty()) {
+                // 작업은 메시지 저장 트랜잭션에서 등록되므로 없으면 자동 답장 대상이 아님
+                return "NOT_QUEUED";
+            }
+            if (FINISHED_JOB_STATUSES.contains(jobStatuses.get(0))) {
+                return jobStatuses.get(0);
+            }
+            Thread.sleep(AUTO_REPLY_POLL_INTERVAL);
+        }
+        return "TIMEOUT";
+    }
+
+    private Map<String, Supplier<Double>> saturationProbes() {
+        Map<String, Supplier<Double>> probes = new LinkedHashMap<>();
+        probes.put("tomcat.threads.busy", () -> gaugeSum("tomcat.threads.busy"));
+        probes.put("hikaricp.connections.active", () -> gaugeSum("hikaricp.connections.active"));
+        probes.put("hikaricp.connections.pending", () -> gaugeSum("hikaricp.connections.pending"));
+        probes.put("ai.scheduler.in_flight", () -> gaugeSum("ai.scheduler.in_flight"));
+        probes.put("ai.scheduler.queue.depth", () -> gaugeSum("ai.scheduler.queue.depth"));
+        probes.put("ai.llm.bulkhead.in_flight", () -> gaugeSum("ai.llm.bulkhead.in_flight"));
+        probes.put("ai.llm.bulkhead.queued", () -> gaugeSum("ai.llm.bulkhead.queued"));
+        probes.put("auto-reply.active", () -> (double) autoReplyExecutor.getActiveCount());
+        probes.put("auto-reply.queued", () -> (double) autoReplyExecutor.getThreadPoolExecutor().getQueue().size());
+        probes.put("reply-precompute.active", () -> (double) replyPrecomputeExecutor.getActiveCount());
+        probes.put("reply-precompute.queued", () -> (double) replyPrecomputeExecutor.getThreadPoolExecutor().getQueue().size());
+        return probes;
+    }
+
+    private double gaugeSum(String name) {
+        return meterRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private static String latencyLine(String name, long[] sorted) {
+        return String.format("%-16s n=%d p50=%dms p90=%dms p99=%dms max=%dms%n", name, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, Math.min(sorted.length - 1, rank))]);
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Scenario(String name, ScenarioCall call) {}
+
+    @FunctionalInterface
+    private interface ScenarioCall {
+        // 결과 상태 (HTTP 상태 코드 또는 자동 답장 작업 상태)
+        String run() throws IOException, InterruptedException;
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + PORT + "/api" + path);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
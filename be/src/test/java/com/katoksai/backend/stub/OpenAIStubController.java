@@ -0,0 +1,243 @@
+package com.katoksai.backend.stub;
+
+import com.katoksai.backend.service.LlmOperation;
+import com.katoksai.backend.service.OpenAIClient;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * OpenAI 호환 /chat/completions 스텁 (openai-stub 프로필 전용)
+ * 유료 API 없이 AI 엔드포인트 부하 테스트를 하기 위해 지연/오류율/고정 응답을 설정값으로 흉내냄
+ * 지연은 스케줄러에서 처리하므로 대기 중에 서블릿 스레드를 점유하지 않음
+ */
+@Hidden
+@RestController
+@RequestMapping("/openai-stub/v1")
+@Profile("openai-stub")
+@Slf4j
+public class OpenAIStubController {
+
+    // 표준정규분포 99 백분위수
+    private static final double Z_99 = 2.326;
+    private static final int STREAM_CHUNK_CHARS = 8;
+    private static final Pattern BATCH_INDEX = Pattern.compile("(?m)^\\[\\d+\\] ");
+
+    // 프롬프트에 포함된 고유 문구로 호출 유형 판별
+    private static final Map<String, LlmOperation> PROMPT_MARKERS = Map.of(
+            "인간관계 분석 전문가", LlmOperation.RELATIONSHIP_ANALYSIS,
+            "메시지 스타일 모방 전문가", LlmOperation.REPLY_GENERATION,
+            "메시지 분석 전문가", LlmOperation.EVENT_DETECTION,
+            "결혼식 참석 여부", LlmOperation.WEDDING_AUTO_REPLY,
+            "대화 요약 전문가", LlmOperation.CONVERSATION_SUMMARY
+    );
+
+    private static final Map<LlmOperation, String> DEFAULT_RESPONSES = Map.of(
+            LlmOperation.RELATIONSHIP_ANALYSIS, """
+                    {"relationshipType":"친구","intimacyLevel":"친함","communicationStyle":"반말",\
+                    "lastContactPeriod":"주1회","keyTopics":["일상","모임"],"emotionalTone":"긍정적",\
+                    "summary":"자주 연락하는 친한 친구"}""",
+            LlmOperation.REPLY_GENERATION, """
+                    {"replies":[{"tone":"정중한","message":"정말 축하해! 꼭 갈게 😊"},\
+                    {"tone":"친근한","message":"헐 대박!! 축하해!! 🎉 무조건 간다!!"},\
+                    {"tone":"공식적","message":"축하해. 일정 확인하고 연락할게."}],\
+                    "recommendedIndex":1,"aiInsight":"평소 반말과 이모지를 자주 사용합니다"}""",
+            LlmOperation.EVENT_DETECTION, """
+                    {"index":%d,"eventType":"WEDDING","confidence":0.9,"keywords":["결혼"],"context":"결혼 소식"}""",
+            LlmOperation.WEDDING_AUTO_REPLY, """
+                    {"intimacyScore":72,"intimacyReason":"자주 연락하며 개인적인 이야기를 나눔",\
+                    "willAttend":true,"attendanceReason":"친밀도 60점 이상",\
+                    "replyMessage":"결혼 축하해! 꼭 갈게~","summary":"친한 친구, 참석"}""",
+            LlmOperation.CONVERSATION_SUMMARY,
+                    "두 사람은 반말로 대화하는 친한 친구 사이이며 주로 일상과 모임 이야기를 나눈다."
+    );
+
+    private final OpenAIStubProperties properties;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+    public OpenAIStubController(OpenAIStubProperties properties) {
+        this.properties = properties;
+        log.warn("OpenAI stub is active - LLM calls will not reach the real API");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @PostMapping(value = "/chat/completions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Object>> chatCompletions(@RequestBody OpenAIClient.ChatRequest request) {
+        CompletableFuture<ResponseEntity<Object>> future = new CompletableFuture<>();
+        if (shouldHang()) {
+            // 응답하지 않음 - 클라이언트 타임아웃 후 MVC 비동기 타임아웃으로 정리됨
+            return future;
+        }
+
+        scheduler.schedule(() -> {
+            if (shouldFail()) {
+                future.complete(errorResponse());
+                return;
+            }
+            String content = cannedResponse(request);
+            OpenAIClient.ChatResponse response = new OpenAIClient.ChatResponse(
+                    "chatcmpl-stub-" + UUID.randomUUID(),
+                    "chat.completion",
+                    System.currentTimeMillis() / 1000,
+                    request.model(),
+                    List.of(new OpenAIClient.Choice(0, new OpenAIClient.ChatMessage("assistant", content), "stop")),
+                    usage(request, content)
+            );
+            future.complete(ResponseEntity.ok(response));
+        }, sampleLatency().toMillis(), TimeUnit.MILLISECONDS);
+
+        return future;
+    }
+
+    @PostMapping(value = "/chat/completions", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> chatCompletionsStream(@RequestBody OpenAIClient.ChatRequest request) {
+        if (shouldFail()) {
+            return ResponseEntity.status(properties.getErrorStatus()).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(0L);
+        if (shouldHang()) {
+            return ResponseEntity.ok(emitter);
+        }
+
+        String id = "chatcmpl-stub-" + UUID.randomUUID();
+        String content = cannedResponse(request);
+        List<String> pieces = new ArrayList<>();
+        for (int i = 0; i < content.length(); i += STREAM_CHUNK_CHARS) {
+            pieces.add(content.substring(i, Math.min(content.length(), i + STREAM_CHUNK_CHARS)));
+        }
+
+        // 첫 청크는 샘플링한 지연 후, 이후 청크는 고정 간격으로 전송
+        long delay = sampleLatency().toMillis();
+        long chunkDelay = properties.getStreamChunkDelay().toMillis();
+        for (String piece : pieces) {
+            OpenAIClient.ChatChunk chunk = new OpenAIClient.ChatChunk(id, request.model(),
+                    List.of(new OpenAIClient.ChunkChoice(0, new OpenAIClient.ChatMessage("assistant", piece), null)), null);
+            scheduler.schedule(() -> send(emitter, chunk), delay, TimeUnit.MILLISECONDS);
+            delay += chunkDelay;
+        }
+
+        boolean includeUsage = request.streamOptions() != null && request.streamOptions().includeUsage();
+        OpenAIClient.ChatChunk last = new OpenAIClient.ChatChunk(id, request.model(),
+                List.of(new OpenAIClient.ChunkChoice(0, new OpenAIClient.ChatMessage("assistant", null), "stop")),
+                includeUsage ? usage(request, content) : null);
+        scheduler.schedule(() -> {
+            send(emitter, last);
+            send(emitter, "[DONE]");
+            emitter.complete();
+        }, delay, TimeUnit.MILLISECONDS);
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void send(SseEmitter emitter, Object data) {
+        try {
+            emitter.send(SseEmitter.event().data(data));
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 연결을 끊음 (타임아웃 등)
+            log.debug("Stub stream closed: {}", e.getMessage());
+        }
+    }
+
+    private String cannedResponse(OpenAIClient.ChatRequest request) {
+        LlmOperation operation = detectOperation(request);
+        if (operation == null) {
+            return "{}";
+        }
+        String configured = properties.getResponses().get(operation.getTag());
+        if (configured != null) {
+            return configured;
+        }
+        if (operation == LlmOperation.EVENT_DETECTION) {
+            // 배치 분류 요청 - "[번호] 내용" 줄마다 결과 하나씩
+            long count = BATCH_INDEX.matcher(userContent(request)).results().count();
+            return IntStream.range(0, (int) count)
+                    .mapToObj(index -> String.format(DEFAULT_RESPONSES.get(operation), index))
+                    .collect(Collectors.joining(",", "{\"results\":[", "]}"));
+        }
+        return DEFAULT_RESPONSES.get(operation);
+    }
+
+    private String userContent(OpenAIClient.ChatRequest request) {
+        return request.messages().stream()
+                .filter(message -> "user".equals(message.role()) && message.content() != null)
+                .map(OpenAIClient.ChatMessage::content)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private LlmOperation detectOperation(OpenAIClient.ChatRequest request) {
+        String prompt = request.messages().stream()
+                .map(OpenAIClient.ChatMessage::content)
+                .filter(Objects::nonNull)
+                .reduce("", String::concat);
+        return PROMPT_MARKERS.entrySet().stream()
+                .filter(entry -> prompt.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private OpenAIClient.Usage usage(OpenAIClient.ChatRequest request, String content) {
+        // 한국어 기준 대략 2자당 1토큰으로 추정
+        int promptTokens = request.messages().stream()
+                .mapToInt(message -> message.content() != null ? message.content().length() / 2 : 0)
+                .sum();
+        int completionTokens = content.length() / 2;
+        // 고정 지시문(system)은 prefix 캐시에 있다고 가정
+        int cachedTokens = request.messages().stream()
+                .filter(message -> "system".equals(message.role()) && message.content() != null)
+                .mapToInt(message -> message.content().length() / 2)
+                .sum();
+        return new OpenAIClient.Usage(promptTokens, completionTokens, promptTokens + completionTokens,
+                new OpenAIClient.PromptTokensDetails(cachedTokens));
+    }
+
+    private ResponseEntity<Object> errorResponse() {
+        return ResponseEntity.status(properties.getErrorStatus())
+                .body(Map.of("error", Map.of("message", "stub error", "type", "server_error")));
+    }
+
+    private Duration sampleLatency() {
+        double medianMs = Math.max(1, properties.getLatencyMedian().toMillis());
+        double p99Ms = Math.max(medianMs, properties.getLatencyP99().toMillis());
+        double sigma = Math.log(p99Ms / medianMs) / Z_99;
+        double sample = Math.exp(Math.log(medianMs) + sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofMillis(Math.round(sample));
+    }
+
+    private boolean shouldFail() {
+        return ThreadLocalRandom.current().nextDouble() < properties.getErrorRate();
+    }
+
+    private boolean shouldHang() {
+        return ThreadLocalRandom.current().nextDouble() < properties.getTimeoutRate();
+    }
+}
@@ -0,0 +1,35 @@
+package com.katoksai.backend.stub;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 로컬 OpenAI 호환 스텁 설정 (openai-stub 프로필에서만 사용)
+ */
+@Configuration
+@Profile("openai-stub")
+@ConfigurationProperties(prefix = "openai-stub")
+@Getter
+@Setter
+public class OpenAIStubProperties {
+
+    // 응답 지연은 로그정규분포 (중앙값과 p99 로 지정)
+    private Duration latencyMedian = Duration.ofMillis(800);
+    private Duration latencyP99 = Duration.ofSeconds(4);
+    // 스트리밍 응답의 청크 간격
+    private Duration streamChunkDelay = Duration.ofMillis(30);
+    // 오류 응답 비율과 상태 코드
+    private double errorRate = 0.0;
+    private int errorStatus = 500;
+    // 응답하지 않는 요청 비율 (클라이언트 타임아웃 확인용)
+    private double timeoutRate = 0.0;
+    // 프롬프트 유형(LlmOperation tag)별 고정 응답, 없으면 기본 응답 사용
+    private Map<String, String> responses = new HashMap<>();
+}